@@ -0,0 +1,450 @@
+import javax.swing.JPanel;
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.BasicStroke;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+public class GraphPanel extends JPanel {
+	
+    // starting view, also what the prefetcher samples ahead of time
+    public static final double DEFAULT_X_MIN = -10;
+    public static final double DEFAULT_X_MAX = 10;
+    
+    private RationalFunctionEngine.RationalFunction current; // current function
+    private GraphSamples samples; // f per pixel column for the current view
+    private GraphFeatures features; // roots, asymptotes, y-intercept, by x
+    
+    // everything but the hover overlay, redrawn only when stale
+    private BufferedImage base;
+    private boolean baseStale = true;
+    
+    // hover trace: pixel column, point and text; hoverPx -1 when off
+    private static final int SNAP_PX = 8;
+    private int hoverPx = -1;
+    private double hoverY;
+    private String hoverText;
+    private Rectangle hoverBounds;
+    
+    // visible window in math coordinates
+    private double xMin = DEFAULT_X_MIN;
+    private double xMax = DEFAULT_X_MAX;
+    private double yMin = -10;
+    private double yMax = 10;
+    
+    // drag state
+    private int lastDragX;
+    private int lastDragY;
+    private boolean dragging = false;
+    
+    
+    public GraphPanel() {
+    	
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(500,400));
+        
+        // mouse drag to move view
+        MouseAdapter adapter = new MouseAdapter() {
+        	
+            @Override
+            public void mousePressed(MouseEvent e) {
+            	
+                dragging = true;
+                clearHover();
+                lastDragX = e.getX();
+                lastDragY = e.getY();
+                setCursor(Cursor.getPredefinedCursor(Cursor.MOVE_CURSOR));
+            }
+
+            
+            @Override
+            public void mouseReleased(MouseEvent e) {
+            	
+                dragging = false;
+                setCursor(Cursor.getDefaultCursor());
+            }
+
+            
+            @Override
+            public void mouseDragged(MouseEvent e) {
+            	
+                if (!dragging) return;
+                
+                int dx = e.getX() - lastDragX;
+                int dy = e.getY() - lastDragY;
+                
+                // convert screen move to world move
+                double worldDx = -dx * (xMax - xMin) / getWidth();
+                double worldDy =  dy * (yMax - yMin) / getHeight();
+                
+                xMin += worldDx;
+                xMax += worldDx;
+                yMin += worldDy;
+                yMax += worldDy;
+                
+                lastDragX = e.getX();
+                lastDragY = e.getY();
+                
+                baseStale = true;
+                repaint();
+            }
+            
+            
+            @Override
+            public void mouseMoved(MouseEvent e) {
+            	
+                updateHover(e.getX());
+            }
+            
+            
+            @Override
+            public void mouseExited(MouseEvent e) {
+            	
+                clearHover();
+            }
+        };
+        
+        addMouseListener(adapter);
+        addMouseMotionListener(adapter);
+    }
+    
+    
+    public void setFunction(RationalFunctionEngine.RationalFunction rf) {
+    	
+        setFunction(rf,null);
+    }
+    
+    
+    // samples may be pre-computed off the EDT; used if they fit the view
+    public void setFunction(RationalFunctionEngine.RationalFunction rf,GraphSamples pre) {
+    	
+        this.current = rf;
+        this.samples = pre;
+        this.features = rf == null ? null : GraphFeatures.build(rf);
+        hoverPx = -1;
+        hoverBounds = null;
+        baseStale = true;
+        repaint();
+    }
+
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+    	
+        super.paintComponent(g);
+        
+        Graphics2D g2 = (Graphics2D) g;
+        int w = getWidth();
+        int h = getHeight();
+        
+        // device pixels, so the cached plot stays sharp on scaled screens
+        double scale = g2.getTransform().getScaleX();
+        int iw = Math.max(1,(int) Math.ceil(w * scale));
+        int ih = Math.max(1,(int) Math.ceil(h * scale));
+        
+        if (baseStale || base == null || base.getWidth() != iw || base.getHeight() != ih) {
+        	
+            base = new BufferedImage(iw,ih,BufferedImage.TYPE_INT_ARGB);
+            Graphics2D bg = base.createGraphics();
+            bg.scale(scale,scale);
+            drawPlot(bg);
+            bg.dispose();
+            baseStale = false;
+        }
+        
+        // hover repaints are clipped to the overlay, so this is a small blit
+        g2.drawImage(base,0,0,w,h,null);
+        drawHover(g2);
+    }
+    
+    
+    private void drawPlot(Graphics2D g2) {
+    	
+        // always draw axes
+        drawAxes(g2);
+        
+        // only draw function stuff if one exists
+        if (current != null) {
+            drawVerticalAsymptotes(g2);
+            drawFunction(g2);
+            drawRoots(g2);
+        }
+    }
+
+    
+    // draw x and y axes
+    private void drawAxes(Graphics2D g2) {
+    	
+        int w = getWidth();
+        int h = getHeight();
+        
+        g2.setColor(Color.LIGHT_GRAY);
+        g2.fillRect(0,h / 2,w,1);
+        g2.fillRect(w / 2,0,1,h);
+        
+        g2.setColor(Color.BLACK);
+        // thicker central axes at x = 0, y = 0
+        g2.fillRect(0,worldToScreenY(0) - 1,w,3);
+        g2.fillRect(worldToScreenX(0) - 1,0,3,h);
+    }
+
+    
+    // draw dotted vertical lines at denominator roots (vertical asymptotes)
+    private void drawVerticalAsymptotes(Graphics2D g2) {
+    	
+        if (current == null) return;
+        
+        g2.setColor(Color.RED);
+        
+        float[] dash = {5f,5f};
+        BasicStroke oldStroke = (BasicStroke) g2.getStroke();
+        
+        g2.setStroke(
+            new BasicStroke(
+                1f,
+                BasicStroke.CAP_BUTT,
+                BasicStroke.JOIN_BEVEL,
+                0f,
+                dash,
+                0f
+            )
+        );
+        
+        // each denom root -> one vertical line
+        for (int i = 0; i < features.size(); i++) {
+        	
+            if (features.kinds[i] != GraphFeatures.ASYMPTOTE) continue;
+            
+            int sx = worldToScreenX(features.xs[i]);
+            g2.drawLine(sx,0,sx,getHeight());
+        }
+        
+        g2.setStroke(oldStroke);
+    }
+
+    
+    // draw the rational function curve
+    private void drawFunction(Graphics2D g2) {
+    	
+        int w = getWidth();
+        g2.setColor(new Color(30,144,255)); // blue
+        
+        // only re-evaluate when the view has moved or resized
+        if (samples == null || !samples.matches(xMin,xMax,w)) {
+        	samples = GraphSamples.sample(current,xMin,xMax,w);
+        }
+        
+        double lastX = Double.NaN;
+        double lastY = Double.NaN;
+        
+        for (int px = 0; px < w; px++) {
+        	
+            double x = screenToWorldX(px);
+            double y = samples.ys[px];
+            
+            if (Double.isNaN(y)) {
+                lastX = Double.NaN;
+                lastY = Double.NaN;
+                continue;
+            }
+            
+            int sx = px;
+            int sy = worldToScreenY(y);
+            
+            if (!Double.isNaN(lastX) && !Double.isNaN(lastY)) {
+            	
+                int lastSx = worldToScreenX(lastX);
+                int lastSy = worldToScreenY(lastY);
+                
+                // avoid huge jumps across asymptotes
+                if (Math.abs(y - lastY) < (yMax - yMin) / 2.0) {
+                    g2.drawLine(lastSx,lastSy,sx,sy);
+                }
+            }
+            
+            lastX = x;
+            lastY = y;
+        }
+    }
+
+    
+    // draw x intercepts as small circles
+    private void drawRoots(Graphics2D g2) {
+    	
+        if (current == null) return;
+        
+        g2.setColor(Color.GREEN.darker());
+        int r = 5; // radius in pixels
+        
+        for (int i = 0; i < features.size(); i++) {
+        	
+            if (features.kinds[i] != GraphFeatures.ROOT) continue;
+            
+            int sx = worldToScreenX(features.xs[i]);
+            int sy = worldToScreenY(0);
+            
+            g2.fillOval(sx - r,sy - r,2 * r,2 * r);
+        }
+    }
+
+    
+    // trace at pixel column px, snapping to a nearby feature
+    private void updateHover(int px) {
+    	
+        if (current == null || dragging) return;
+        
+        int w = getWidth();
+        
+        // the plot has not been painted for this view yet
+        if (px < 0 || px >= w || samples == null || !samples.matches(xMin,xMax,w)) {
+            clearHover();
+            return;
+        }
+        
+        double x = screenToWorldX(px);
+        double y = samples.ys[px];
+        String text;
+        
+        int f = features.nearest(x,SNAP_PX * (xMax - xMin) / w);
+        
+        if (f >= 0) {
+        	
+            x = features.xs[f];
+            y = features.ys[f];
+            px = worldToScreenX(x);
+            
+            switch (features.kinds[f]) {
+                case GraphFeatures.ROOT:
+                    text = (x == 0 ? "x- and y-intercept " : "x-intercept ") + point(x,y);
+                    break;
+                case GraphFeatures.ASYMPTOTE: text = "asymptote x = " + num(x); break;
+                default: text = "y-intercept " + point(x,y); break;
+            }
+        }
+        else {
+            text = Double.isNaN(y) ? "x = " + num(x) + ", undefined" : point(x,y);
+        }
+        
+        Rectangle old = hoverBounds;
+        
+        hoverPx = px;
+        hoverY = y;
+        hoverText = text;
+        hoverBounds = overlayBounds();
+        
+        // only the old and new overlay areas
+        if (old != null) repaint(old);
+        repaint(hoverBounds);
+    }
+    
+    
+    private void clearHover() {
+    	
+        if (hoverBounds != null) repaint(hoverBounds);
+        
+        hoverPx = -1;
+        hoverBounds = null;
+    }
+    
+    
+    // guide line, marker and label; must stay inside overlayBounds()
+    private void drawHover(Graphics2D g2) {
+    	
+        if (hoverPx < 0 || hoverBounds == null) return;
+        
+        int h = getHeight();
+        
+        g2.setColor(new Color(0,0,0,60));
+        g2.fillRect(hoverPx,0,1,h);
+        
+        if (!Double.isNaN(hoverY)) {
+        	
+            int sy = worldToScreenY(hoverY);
+            g2.setColor(Color.BLACK);
+            g2.fillOval(hoverPx - 4,sy - 4,8,8);
+        }
+        
+        Rectangle label = labelBounds();
+        
+        g2.setColor(new Color(255,255,225));
+        g2.fillRect(label.x,label.y,label.width,label.height);
+        g2.setColor(Color.DARK_GRAY);
+        g2.drawRect(label.x,label.y,label.width - 1,label.height - 1);
+        
+        FontMetrics fm = g2.getFontMetrics(getFont());
+        g2.setFont(getFont());
+        g2.drawString(hoverText,label.x + 4,label.y + 2 + fm.getAscent());
+    }
+    
+    
+    private Rectangle overlayBounds() {
+    	
+        Rectangle r = new Rectangle(hoverPx,0,1,getHeight());
+        
+        if (!Double.isNaN(hoverY)) {
+        	
+            int sy = worldToScreenY(hoverY);
+            r.add(new Rectangle(hoverPx - 5,sy - 5,11,11));
+        }
+        
+        r.add(labelBounds());
+        
+        // a marker off the top or bottom of the view adds nothing
+        return r.intersection(new Rectangle(0,0,getWidth(),getHeight()));
+    }
+    
+    
+    // top corner, on whichever side of the guide line has room
+    private Rectangle labelBounds() {
+    	
+        FontMetrics fm = getFontMetrics(getFont());
+        int lw = fm.stringWidth(hoverText) + 8;
+        int lh = fm.getHeight() + 4;
+        int lx = hoverPx + 8 + lw <= getWidth() ? hoverPx + 8 : hoverPx - 8 - lw;
+        
+        return new Rectangle(lx,getInsets().top + 4,lw,lh);
+    }
+    
+    
+    private static String point(double x,double y) {
+    	
+        return "(" + num(x) + ", " + num(y) + ")";
+    }
+    
+    
+    private static String num(double v) {
+    	
+        if (v == Math.rint(v) && Math.abs(v) < 1e9) return Long.toString((long) v);
+        return String.format("%.3f",v);
+    }
+
+    
+    // convert world x to screen x
+    private int worldToScreenX(double x) {
+    	
+        int w = getWidth();
+        return (int) ((x - xMin) / (xMax - xMin) * w);
+    }
+
+    
+    // convert world y to screen y
+    private int worldToScreenY(double y) {
+    	
+        int h = getHeight();
+        return (int) ((yMax - y) / (yMax - yMin) * h);
+    }
+
+    
+    // convert screen x to world x
+    private double screenToWorldX(int px) {
+    	
+        int w = getWidth();
+        return xMin + (xMax - xMin) * (px / (double) w);
+    }
+}
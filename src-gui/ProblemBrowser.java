@@ -0,0 +1,227 @@
+import javax.swing.BorderFactory;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JScrollPane;
+import javax.swing.JSplitPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.ListSelectionModel;
+import javax.swing.table.AbstractTableModel;
+import java.awt.BasicStroke;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class ProblemBrowser extends JFrame {
+
+    private static final int THUMB_W = 120;
+    private static final int THUMB_H = 48;
+
+    private final ProblemTableModel model;
+    private final JTable table;
+    private final JTextArea detailArea;
+
+    public ProblemBrowser(int maxDegree, String difficulty, long seed, int count,
+                          Consumer<GeneratedProblem> onPick) {
+        super("Problem Set: " + count + " problems, seed " + seed);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        model = new ProblemTableModel(maxDegree, difficulty, seed, count);
+
+        // JTable only asks for the rows in view, so nothing here scales
+        // with count; fixed row height keeps it from measuring every row
+        table = new JTable(model);
+        table.setRowHeight(THUMB_H + 4);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setFillsViewportHeight(true);
+        table.getColumnModel().getColumn(0).setMaxWidth(80);
+        table.getColumnModel().getColumn(1).setMaxWidth(110);
+        table.getColumnModel().getColumn(2).setMinWidth(THUMB_W + 8);
+        table.getColumnModel().getColumn(2).setMaxWidth(THUMB_W + 8);
+
+        detailArea = new JTextArea(10, 40);
+        detailArea.setEditable(false);
+        detailArea.setFont(new Font("SansSerif", Font.PLAIN, 14));
+
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (e.getValueIsAdjusting()) return;
+            int row = table.getSelectedRow();
+            if (row < 0) return;
+
+            GeneratedProblem p = model.problemAt(row);
+            if (p == null) {
+                detailArea.setText(model.getValueAt(row, 3) + "\n");
+                return;
+            }
+            detailArea.setText(RationalFunctionEngine.buildProblemText(p.function));
+            onPick.accept(p);
+        });
+
+        JSplitPane split = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(table), new JScrollPane(detailArea));
+        split.setResizeWeight(0.75);
+
+        JLabel hint = new JLabel("Click a row to load it into the main window.");
+        hint.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
+
+        setLayout(new BorderLayout());
+        add(hint, BorderLayout.NORTH);
+        add(split, BorderLayout.CENTER);
+
+        setSize(720, 640);
+    }
+
+    // rows are regenerated from (seed, index) on demand; only the most
+    // recently viewed ones are kept, with their label and thumbnail
+    private static class ProblemTableModel extends AbstractTableModel {
+
+        private static final String[] COLUMNS = {"#", "Seed", "Graph", "f(x) = N(x) / D(x)"};
+        private static final int CACHE_ROWS = 2048;
+
+        private final int maxDegree;
+        private final String difficulty;
+        private final long seed;
+        private final int count;
+
+        private final LinkedHashMap<Integer, Row> cache =
+                new LinkedHashMap<Integer, Row>(256, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Integer, Row> eldest) {
+                        return size() > CACHE_ROWS;
+                    }
+                };
+
+        ProblemTableModel(int maxDegree, String difficulty, long seed, int count) {
+            this.maxDegree = maxDegree;
+            this.difficulty = difficulty;
+            this.seed = seed;
+            this.count = count;
+        }
+
+        GeneratedProblem problemAt(int row) {
+            return row(row).problem;
+        }
+
+        @Override
+        public int getRowCount() {
+            return count;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int col) {
+            return COLUMNS[col];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int col) {
+            return col == 2 ? Icon.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int col) {
+            Row row = row(rowIndex);
+            switch (col) {
+                case 0: return Integer.toString(rowIndex);
+                case 1: return Integer.toString(RationalFunctionEngine.problemSeed(seed, rowIndex));
+                case 2:
+                    if (row.problem == null) return null;
+                    if (row.thumb == null) row.thumb = new ImageIcon(renderThumb(row.problem.function));
+                    return row.thumb;
+                default:
+                    if (row.label == null) row.label = formatLabel(row.problem.function);
+                    return row.label;
+            }
+        }
+
+        // a problem the engine gives up on becomes an error row, not an
+        // exception out of getValueAt on every repaint
+        private Row row(int index) {
+            Row row = cache.get(index);
+            if (row == null) {
+                try {
+                    row = new Row(GeneratedProblem.generate(seed, index, maxDegree, difficulty, false));
+                } catch (RuntimeException ex) {
+                    row = new Row(null);
+                    row.label = "could not generate: " + ex.getMessage();
+                }
+                cache.put(index, row);
+            }
+            return row;
+        }
+    }
+
+    private static class Row {
+        final GeneratedProblem problem;   // null if generation failed
+        String label;   // formatted on first paint
+        Icon thumb;     // rendered on first paint
+
+        Row(GeneratedProblem problem) {
+            this.problem = problem;
+        }
+    }
+
+    // the N(x) and D(x) lines of buildProblemText, on one row
+    private static String formatLabel(RationalFunctionEngine.RationalFunction rf) {
+        String n = "", d = "";
+        for (String line : RationalFunctionEngine.buildProblemText(rf).split("\n")) {
+            if (line.startsWith("N(x) = ")) n = line.substring(7);
+            if (line.startsWith("D(x) = ")) d = line.substring(7);
+        }
+        return "(" + n + ") / (" + d + ")";
+    }
+
+    // same [-10, 10] window and asymptote jump rule as GraphPanel
+    private static BufferedImage renderThumb(RationalFunctionEngine.RationalFunction rf) {
+        BufferedImage img = new BufferedImage(THUMB_W, THUMB_H, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = img.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, THUMB_W, THUMB_H);
+        g2.setColor(Color.LIGHT_GRAY);
+        g2.drawLine(0, THUMB_H / 2, THUMB_W, THUMB_H / 2);
+        g2.drawLine(THUMB_W / 2, 0, THUMB_W / 2, THUMB_H);
+
+        double range = 20.0;
+        g2.setColor(new Color(255, 160, 160));
+        for (int root : rf.denom.roots) {
+            int sx = (int) ((root + 10) / range * THUMB_W);
+            g2.drawLine(sx, 0, sx, THUMB_H);
+        }
+
+        g2.setColor(new Color(30, 144, 255));
+        g2.setStroke(new BasicStroke(1.2f));
+
+        double lastY = Double.NaN;
+        int lastSy = 0;
+        for (int px = 0; px < THUMB_W; px++) {
+            double y = rf.valueAt(-10 + range * px / THUMB_W);
+            if (Double.isNaN(y) || Double.isInfinite(y)) {
+                lastY = Double.NaN;
+                continue;
+            }
+            int sy = (int) ((10 - y) / range * THUMB_H);
+            if (!Double.isNaN(lastY) && Math.abs(y - lastY) < range / 2) {
+                g2.drawLine(px - 1, lastSy, px, sy);
+            }
+            lastY = y;
+            lastSy = sy;
+        }
+
+        g2.dispose();
+        return img;
+    }
+}
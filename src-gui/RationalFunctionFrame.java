@@ -0,0 +1,342 @@
+import javax.swing.BorderFactory;
+import javax.swing.ButtonGroup;
+import javax.swing.JButton;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JRadioButton;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.SpinnerNumberModel;
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.GridBagConstraints;
+import java.awt.GridBagLayout;
+import java.awt.Insets;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.io.IOException;
+import java.util.Random;
+
+public class RationalFunctionFrame extends JFrame {
+
+    private final JSpinner degreeSpinner;
+    private final JRadioButton easyBtn;
+    private final JRadioButton medBtn;
+    private final JRadioButton hardBtn;
+    private final JTextField seedField;
+    private final JButton generateButton;
+    private final JButton answerButton;
+    private final JButton graphButton;
+    private final JButton enterButton;
+    private final JButton browseButton;
+    private final JTextArea outputArea;
+    private final GraphPanel graphPanel;
+
+    private RationalFunctionEngine.RationalFunction currentFunction;
+    private String currentAnswerKey;     // pre-built by the prefetcher, else null
+    private GraphSamples currentSamples; // likewise
+    private final ProblemPrefetcher prefetcher;
+    private final SessionLog sessionLog;  // null if it could not be opened
+    private int currentSeed;
+    private int currentDegree = -1;       // -1 for an entered function
+    private String currentDifficulty;
+    private final Random rng = new Random();
+
+    public RationalFunctionFrame() {
+        super("Rational Function Practice Generator");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+
+        // ===== top controls =====
+        JPanel topPanel = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(4, 4, 4, 4);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+
+        degreeSpinner = new JSpinner(new SpinnerNumberModel(3, 1, 6, 1));
+        easyBtn = new JRadioButton("Easy");
+        medBtn = new JRadioButton("Medium", true);
+        hardBtn = new JRadioButton("Hard");
+
+        ButtonGroup diffGroup = new ButtonGroup();
+        diffGroup.add(easyBtn);
+        diffGroup.add(medBtn);
+        diffGroup.add(hardBtn);
+
+        seedField = new JTextField(8);
+
+        generateButton = new JButton("Generate Problem");
+        answerButton = new JButton("Show Answer Key");
+        graphButton = new JButton("Show Graph");
+        enterButton = new JButton("Enter Function...");
+        browseButton = new JButton("Browse Set...");
+
+        int col = 0;
+
+        gbc.gridx = col++;
+        gbc.gridy = 0;
+        topPanel.add(new JLabel("Max degree:"), gbc);
+        gbc.gridx = col++;
+        topPanel.add(degreeSpinner, gbc);
+
+        gbc.gridx = col++;
+        topPanel.add(new JLabel("Difficulty:"), gbc);
+
+        JPanel diffPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        diffPanel.add(easyBtn);
+        diffPanel.add(medBtn);
+        diffPanel.add(hardBtn);
+
+        gbc.gridx = col++;
+        topPanel.add(diffPanel, gbc);
+
+        gbc.gridx = col++;
+        topPanel.add(new JLabel("Seed (optional):"), gbc);
+
+        gbc.gridx = col++;
+        topPanel.add(seedField, gbc);
+
+        gbc.gridx = col++;
+        topPanel.add(generateButton, gbc);
+
+        gbc.gridx = col++;
+        topPanel.add(answerButton, gbc);
+
+        gbc.gridx = col++;
+        topPanel.add(graphButton, gbc);
+
+        gbc.gridx = col++;
+        topPanel.add(enterButton, gbc);
+
+        gbc.gridx = col++;
+        topPanel.add(browseButton, gbc);
+
+        topPanel.setBorder(BorderFactory.createEmptyBorder(8, 8, 4, 8));
+
+        // ===== center: output + graph =====
+        outputArea = new JTextArea(24, 60); // doubled rows
+        outputArea.setEditable(false);
+        outputArea.setLineWrap(true);
+        outputArea.setWrapStyleWord(true);
+        outputArea.setFont(new Font("SansSerif", Font.PLAIN, 16)); // larger font
+        JScrollPane outputScroll = new JScrollPane(outputArea);
+
+        graphPanel = new GraphPanel();
+        graphPanel.setBorder(BorderFactory.createTitledBorder("Graph"));
+
+        JPanel centerPanel = new JPanel(new BorderLayout(8, 8));
+        centerPanel.setBorder(BorderFactory.createEmptyBorder(4, 8, 8, 8));
+        centerPanel.add(outputScroll, BorderLayout.CENTER);
+        centerPanel.add(graphPanel, BorderLayout.EAST);
+
+        setLayout(new BorderLayout());
+        add(topPanel, BorderLayout.NORTH);
+        add(centerPanel, BorderLayout.CENTER);
+
+        pack();
+        setLocationRelativeTo(null);
+        setMinimumSize(getSize()); // allow resize, including horizontal
+
+        generateButton.addActionListener(e -> onGenerate());
+        answerButton.addActionListener(e -> onShowAnswer());
+        graphButton.addActionListener(e -> onShowGraph());
+        enterButton.addActionListener(e -> onEnterFunction());
+        browseButton.addActionListener(e -> onBrowse());
+
+        // keep ready-made problems queued for whatever is selected
+        prefetcher = new ProblemPrefetcher(8, GraphPanel.DEFAULT_X_MIN, GraphPanel.DEFAULT_X_MAX,
+                graphPanel.getWidth());
+        warmPrefetch();
+        degreeSpinner.addChangeListener(e -> warmPrefetch());
+        easyBtn.addActionListener(e -> warmPrefetch());
+        medBtn.addActionListener(e -> warmPrefetch());
+        hardBtn.addActionListener(e -> warmPrefetch());
+        graphPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                prefetcher.setSampleWidth(graphPanel.getWidth());
+            }
+        });
+
+        // audit trail; events are queued here and written off the EDT
+        SessionLog log = null;
+        try {
+            log = SessionLog.openDefault();
+            Runtime.getRuntime().addShutdownHook(new Thread(log::close));
+        } catch (IOException ex) {
+            System.err.println("Session log disabled: " + ex.getMessage());
+        }
+        sessionLog = log;
+    }
+
+    private void onGenerate() {
+        int maxDegree = (Integer) degreeSpinner.getValue();
+        String difficulty = getDifficulty();
+        ProblemPrefetcher.Ready ready = null;
+        boolean seeded = false;
+
+        // a seed always means exactly that problem, never a queued one
+        String seedText = seedField.getText().trim();
+        if (!seedText.isEmpty()) {
+            try {
+                int seed = Integer.parseInt(seedText);
+                ready = ProblemPrefetcher.prepare(seed, maxDegree, difficulty,
+                        GraphPanel.DEFAULT_X_MIN, GraphPanel.DEFAULT_X_MAX, graphPanel.getWidth());
+                seeded = true;
+            } catch (NumberFormatException ex) {
+                outputArea.append("Invalid seed. Using random seed instead.\n");
+            }
+        }
+        if (!seeded) {
+            ready = prefetcher.next(maxDegree, difficulty);
+        }
+
+        if (ready == null) {
+            outputArea.setText("Too many attempts. Try again.\n");
+            currentFunction = null;
+            currentAnswerKey = null;
+            currentSamples = null;
+            graphPanel.setFunction(null);
+            return;
+        }
+
+        currentFunction = ready.function;
+        currentAnswerKey = ready.answerKey;
+        currentSamples = ready.samples;
+        setCurrentProblem(ready.seed, maxDegree, difficulty);
+        outputArea.setText(ready.problemText);
+        graphPanel.setFunction(null);
+        logEvent(SessionLog.GENERATE);
+    }
+
+    private void onShowAnswer() {
+        if (currentFunction == null) {
+            outputArea.append("\nNo function generated yet.\n");
+            return;
+        }
+        String ans = currentAnswerKey != null
+                ? currentAnswerKey
+                : GeneratedProblem.answerKeyText(currentFunction);
+        outputArea.append("\n" + ans);
+        logEvent(SessionLog.ANSWER);
+    }
+
+    private void onShowGraph() {
+        if (currentFunction == null) {
+            outputArea.append("\nNo function generated to graph.\n");
+            return;
+        }
+        graphPanel.setFunction(currentFunction, currentSamples);
+        logEvent(SessionLog.GRAPH);
+    }
+
+    private void onEnterFunction() {
+        JTextField numerField = new JTextField(20);
+        JTextField denomField = new JTextField(20);
+
+        JPanel form = new JPanel(new GridBagLayout());
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(2, 2, 2, 2);
+        gbc.gridy = 0;
+        form.add(new JLabel("N(x) ="), gbc);
+        form.add(numerField, gbc);
+        gbc.gridy = 1;
+        form.add(new JLabel("D(x) ="), gbc);
+        form.add(denomField, gbc);
+
+        int choice = JOptionPane.showConfirmDialog(this, form,
+                "Enter a rational function, e.g. 2(x-3)^2(x+1)",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (choice != JOptionPane.OK_OPTION) return;
+
+        RationalFunctionEngine.RationalFunction rf;
+        try {
+            rf = RationalFunctionParser.parseRational(numerField.getText(), denomField.getText());
+        } catch (IllegalArgumentException ex) {
+            outputArea.setText("Could not read function: " + ex.getMessage() + "\n");
+            return;
+        }
+
+        currentFunction = rf;
+        currentAnswerKey = null;
+        currentSamples = null;
+        setCurrentProblem(0, -1, null);
+        outputArea.setText(RationalFunctionEngine.buildProblemText(rf));
+        graphPanel.setFunction(null);
+        logEvent(SessionLog.ENTERED);
+    }
+
+    private void onBrowse() {
+        int maxDegree = (Integer) degreeSpinner.getValue();
+        if (maxDegree < 2) {
+            // D(x) needs degree >= 1 below a numerator one degree higher
+            outputArea.setText("Problem sets need a max degree of at least 2.\n");
+            return;
+        }
+
+        String countText = JOptionPane.showInputDialog(this, "How many problems?", "100000");
+        if (countText == null) return;
+
+        int count;
+        try {
+            count = Integer.parseInt(countText.trim());
+        } catch (NumberFormatException ex) {
+            outputArea.setText("Invalid problem count.\n");
+            return;
+        }
+        if (count < 1) {
+            outputArea.setText("Invalid problem count.\n");
+            return;
+        }
+
+        long seed;
+        String seedText = seedField.getText().trim();
+        try {
+            seed = seedText.isEmpty() ? rng.nextInt() : Integer.parseInt(seedText);
+        } catch (NumberFormatException ex) {
+            outputArea.append("Invalid seed. Using random seed instead.\n");
+            seed = rng.nextInt();
+        }
+
+        String difficulty = getDifficulty();
+        ProblemBrowser browser = new ProblemBrowser(maxDegree, difficulty, seed, count, p -> {
+            currentFunction = p.function;
+            currentAnswerKey = null;
+            currentSamples = null;
+            setCurrentProblem(p.seed, maxDegree, difficulty);
+            outputArea.setText("Problem #" + p.index + " (seed " + p.seed + ")\n"
+                    + RationalFunctionEngine.buildProblemText(p.function));
+            graphPanel.setFunction(p.function);
+            logEvent(SessionLog.PICKED);
+        });
+        browser.setLocationRelativeTo(this);
+        browser.setVisible(true);
+    }
+
+    private void setCurrentProblem(int seed, int maxDegree, String difficulty) {
+        currentSeed = seed;
+        currentDegree = maxDegree;
+        currentDifficulty = difficulty;
+    }
+
+    // non-blocking; a full queue drops the event rather than stall the EDT
+    private void logEvent(byte kind) {
+        if (sessionLog != null) {
+            sessionLog.log(kind, currentSeed, currentDegree, currentDifficulty);
+        }
+    }
+
+    private void warmPrefetch() {
+        prefetcher.warm((Integer) degreeSpinner.getValue(), getDifficulty());
+    }
+
+    private String getDifficulty() {
+        if (easyBtn.isSelected()) return "EASY";
+        if (hardBtn.isSelected()) return "HARD";
+        return "MEDIUM";
+    }
+}
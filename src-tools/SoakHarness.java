@@ -0,0 +1,378 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class SoakHarness {
+
+    // generates problems in parallel and checks every one against the
+    // engine's invariants; lives outside src/ since it needs java.management
+    // for the GC figures:
+    //   java SoakHarness <seed> <count> [--threads n] [--report-every seconds]
+    public static void main(String[] args) throws InterruptedException {
+
+        if (args.length < 2) {
+            System.err.println("usage: SoakHarness <seed> <count> [--threads n] [--report-every seconds]");
+            System.exit(2);
+        }
+
+        long seed = Long.parseLong(args[0]);
+        long count = Long.parseLong(args[1]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        int reportEvery = 10;
+
+        for (int i = 2; i < args.length; i++) {
+
+            switch (args[i]) {
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--report-every": reportEvery = Integer.parseInt(args[++i]); break;
+                default:
+                    System.err.println("unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        SoakHarness soak = new SoakHarness(seed,count);
+        System.exit(soak.run(threads,reportEvery) ? 0 : 1);
+    }
+
+
+    // ====== internal utilities ======
+
+
+    private static final String[] LEVELS = {"EASY","MEDIUM","HARD"};
+    // the generator needs deg D >= 1 under a numerator one degree higher
+    private static final int MIN_DEGREE = 2;
+    private static final int MAX_DEGREE = 6;
+    private static final int CHUNK = 4096;
+    private static final int EXAMPLES_PER_KIND = 5;
+
+    private final long seed;
+    private final long count;
+
+    private final AtomicLong nextIndex = new AtomicLong();
+    private final LongAdder checked = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+
+    // violation kind -> how many, plus the first few to reproduce
+    private final ConcurrentHashMap<String,LongAdder> counts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String,List<String>> examples = new ConcurrentHashMap<>();
+
+    // the same for known engine issues, reported but not failing the run
+    private final ConcurrentHashMap<String,LongAdder> knownCounts = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String,List<String>> knownExamples = new ConcurrentHashMap<>();
+
+
+    SoakHarness
+    (long seed,long count) {
+
+        this.seed = seed;
+        this.count = count;
+    }
+
+
+    boolean run
+    (int threads,int reportEvery) throws InterruptedException {
+
+        long gcCount0 = gcCount();
+        long gcMillis0 = gcMillis();
+        long t0 = System.nanoTime();
+
+        ArrayList<Thread> workers = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+
+            Thread t = new Thread(this::workLoop,"soak-" + i);
+            t.start();
+            workers.add(t);
+        }
+
+        // progress until the workers are through
+        long lastChecked = 0;
+        long lastTime = t0;
+
+        for (Thread t : workers) {
+
+            while (t.isAlive()) {
+
+                t.join(reportEvery * 1000L);
+                long now = System.nanoTime();
+
+                if (t.isAlive() && now - lastTime >= reportEvery * 1_000_000_000L) {
+
+                    long c = checked.sum();
+                    System.out.printf("%,d / %,d checked, %,.0f problems/s, %d violation kinds%n",
+                        c,count,(c - lastChecked) * 1e9 / (now - lastTime),counts.size());
+                    lastChecked = c;
+                    lastTime = now;
+                }
+            }
+        }
+
+        long nanos = System.nanoTime() - t0;
+        long total = checked.sum();
+
+        System.out.println("--- Soak Report ---");
+        System.out.printf("seed %d, %,d problems on %d threads in %.1f s%n",
+            seed,total,threads,nanos / 1e9);
+        System.out.printf("sustained throughput: %,.0f problems/s%n",total * 1e9 / nanos);
+        System.out.printf("gave up after %d attempts: %,d%n",
+            RationalFunctionEngine.MAX_ATTEMPTS,gaveUp.sum());
+        System.out.printf("GC: %,d collections, %,d ms (%.2f%% of wall time)%n",
+            gcCount() - gcCount0,gcMillis() - gcMillis0,
+            (gcMillis() - gcMillis0) * 1e8 / nanos);
+
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            System.out.printf("  %s: %,d collections, %,d ms%n",
+                gc.getName(),gc.getCollectionCount(),gc.getCollectionTime());
+        }
+
+        if (!knownCounts.isEmpty()) {
+        	System.out.println("known issues (not counted as violations):");
+        	list(knownCounts,knownExamples);
+        }
+
+        if (counts.isEmpty()) {
+        	System.out.println("no invariant violations");
+        	return true;
+        }
+
+        System.out.println("violations (reproduce with generateWithRetry(maxDegree, "
+            + "difficulty, new Random(problemSeed))):");
+        list(counts,examples);
+
+        return false;
+    }
+
+
+    private static void list
+    (Map<String,LongAdder> counts,Map<String,List<String>> examples) {
+
+        for (Map.Entry<String,LongAdder> e : new TreeMap<>(counts).entrySet()) {
+
+            System.out.printf("  %s: %,d%n",e.getKey(),e.getValue().sum());
+            for (String ex : examples.get(e.getKey())) System.out.println("    " + ex);
+        }
+    }
+
+
+    private void workLoop() {
+
+        // per-thread scratch; reseeding gives the same draws as new Random(seed)
+        GeneratorContext ctx = new GeneratorContext(MAX_DEGREE);
+        Random rng = new Random();
+        long start;
+
+        while ((start = nextIndex.getAndAdd(CHUNK)) < count) {
+
+            long end = Math.min(count,start + CHUNK);
+
+            for (long i = start; i < end; i++) {
+            	checkOne(i,ctx,rng);
+            }
+
+            checked.add(end - start);
+        }
+    }
+
+
+    // cycles every degree and difficulty, each problem from its own seed
+    private void checkOne
+    (long index,GeneratorContext ctx,Random rng) {
+
+        int maxDegree = MIN_DEGREE + (int) (index % (MAX_DEGREE - MIN_DEGREE + 1));
+        String difficulty = LEVELS[(int) ((index / (MAX_DEGREE - MIN_DEGREE + 1)) % LEVELS.length)];
+        int problemSeed = RationalFunctionEngine.problemSeed(seed,index);
+
+        RationalFunctionEngine.RationalFunction rf;
+
+        try {
+            rng.setSeed(problemSeed);
+            rf = ctx.generateWithRetry(maxDegree,difficulty,rng);
+        }
+        catch (RuntimeException ex) {
+        	note(counts,examples,"exception " + ex.getClass().getSimpleName(),index,problemSeed,
+        	     maxDegree,difficulty,String.valueOf(ex.getMessage()));
+        	return;
+        }
+
+        if (rf == null) {
+        	gaveUp.increment();
+        	return;
+        }
+
+        String where = null;
+
+        if (!rootsAreZeros(rf.numer)) where = "numerator root is not a zero of N(x)";
+        else if (!rootsAreZeros(rf.denom)) where = "denominator root is not a zero of D(x)";
+        else if (rf.numer.roots.size() != rf.numer.degree()) where = "numerator not fully factored";
+        else if (rf.denom.roots.size() != rf.denom.degree()) where = "denominator not fully factored";
+        else if (!matchesFactored(rf.numer)) where = "N(x) coeffs differ from its factored form";
+        else if (!matchesFactored(rf.denom)) where = "D(x) coeffs differ from its factored form";
+        else if (sharesRoot(rf)) where = "shared root between N(x) and D(x)";
+        else if (rf.denom.degree() < 1 || rf.numer.degree() > maxDegree) where = "degree out of range";
+        else if (difficulty.equals("HARD")
+                 && (Math.abs(rf.numer.leading) == 1 || Math.abs(rf.denom.leading) == 1)) {
+        	where = "HARD leading coefficient is +-1";
+        }
+        else if (!valueMatchesFactored(rf)) where = "valueAt disagrees with factored form";
+
+        String detail = rf.numer.toFactorString() + " / " + rf.denom.toFactorString();
+
+        if (where != null) {
+        	note(counts,examples,where,index,problemSeed,maxDegree,difficulty,detail);
+        }
+
+        // getObliqueAsymptote prints y = kx with k from integer division
+        if (!obliqueMatchesQuotient(rf)) {
+        	note(knownCounts,knownExamples,"oblique asymptote is not the exact quotient",
+        	     index,problemSeed,maxDegree,difficulty,detail);
+        }
+    }
+
+
+    private static void note
+    (ConcurrentHashMap<String,LongAdder> counts,ConcurrentHashMap<String,List<String>> examples,
+     String kind,long index,int problemSeed,int maxDegree,String difficulty,String detail) {
+
+        counts.computeIfAbsent(kind,k -> new LongAdder()).increment();
+        List<String> list = examples.computeIfAbsent(kind,k -> new ArrayList<>());
+
+        synchronized (list) {
+
+            if (list.size() < EXAMPLES_PER_KIND) {
+            	list.add("index " + index + ", problemSeed " + problemSeed + ", maxDegree "
+            	         + maxDegree + ", " + difficulty + ": " + detail);
+            }
+        }
+    }
+
+
+    // exact in long, so an int overflow in the coeffs cannot hide
+    private static boolean rootsAreZeros
+    (RationalFunctionEngine.Poly p) {
+
+        for (int r : p.roots) {
+
+            long acc = 0;
+
+            for (int i = p.coeffs.size() - 1; i >= 0; i--) {
+            	acc = acc * r + p.coeffs.get(i);
+            }
+
+            if (acc != 0) return false;
+        }
+
+        return true;
+    }
+
+
+    // leading * prod (x - r), expanded in long, against the stored coeffs
+    private static boolean matchesFactored
+    (RationalFunctionEngine.Poly p) {
+
+        long[] c = {p.leading};
+
+        for (int r : p.roots) {
+
+            long[] next = new long[c.length + 1];
+
+            for (int i = 0; i < c.length; i++) {
+                next[i + 1] += c[i];
+                next[i] -= r * c[i];
+            }
+
+            c = next;
+        }
+
+        if (c.length != p.coeffs.size()) return false;
+
+        for (int i = 0; i < c.length; i++) {
+            if (c[i] != p.coeffs.get(i)) return false;
+        }
+
+        return true;
+    }
+
+
+    private static boolean sharesRoot
+    (RationalFunctionEngine.RationalFunction rf) {
+
+        for (int r : rf.denom.roots) {
+            if (rf.numer.roots.contains(r)) return true;
+        }
+
+        return false;
+    }
+
+
+    private static boolean valueMatchesFactored
+    (RationalFunctionEngine.RationalFunction rf) {
+
+        // off-integer points, never on a root
+        double[] xs = {-7.25,-2.5,-0.75,0.5,1.75,4.5,9.125};
+
+        for (double x : xs) {
+
+            double n = rf.numer.leading;
+            double d = rf.denom.leading;
+
+            for (int r : rf.numer.roots) n *= x - r;
+            for (int r : rf.denom.roots) d *= x - r;
+
+            double want = n / d;
+            double got = rf.valueAt(x);
+
+            if (Math.abs(got - want) > 1e-9 * Math.max(1,Math.abs(want))) return false;
+        }
+
+        return true;
+    }
+
+
+    // the answer key prints y = kx; the real asymptote is y = ax + b
+    // with a = nLead / dLead and b from the next coeff down
+    private static boolean obliqueMatchesQuotient
+    (RationalFunctionEngine.RationalFunction rf) {
+
+        int m = rf.numer.degree();
+        if (m != rf.denom.degree() + 1) return true;
+
+        long nLead = rf.numer.coeffs.get(m);
+        long dLead = rf.denom.coeffs.get(m - 1);
+        long bTop = rf.numer.coeffs.get(m - 1) * dLead - nLead * rf.denom.coeffs.get(m - 2);
+
+        if (nLead % dLead != 0 || bTop != 0) return false;
+
+        return RationalFunctionEngine.getObliqueAsymptote(rf.numer,rf.denom)
+            .equals("y = " + nLead / dLead + "x");
+    }
+
+
+    private static long gcCount() {
+
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        	n += Math.max(0,gc.getCollectionCount());
+        }
+
+        return n;
+    }
+
+
+    private static long gcMillis() {
+
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+        	n += Math.max(0,gc.getCollectionTime());
+        }
+
+        return n;
+    }
+}
@@ -0,0 +1,573 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class AnswerGrader {
+
+    // ====== public api ======
+
+
+    public enum Part {
+        FACTORED,
+        X_INTERCEPTS,
+        Y_INTERCEPT,
+        DOMAIN,
+        VERTICAL_ASYMPTOTES,
+        OBLIQUE_ASYMPTOTE
+    }
+
+
+    public static class StudentResponse {
+
+        public final String studentId;
+        public final int problemIndex;              // index into the problem batch
+
+        // null anywhere means the part was left blank
+        public final String factoredNumer;          // e.g. "2(x-3)(x+1)"
+        public final String factoredDenom;
+        public final List<Integer> xIntercepts;     // distinct x values
+        public final Double yIntercept;             // NaN for "undefined"
+        public final String domain;                 // "(-inf,2)U(2,inf)"
+        public final List<Integer> verticalAsymptotes;
+        public final Double obliqueSlope;           // both NaN for "none"
+        public final Double obliqueIntercept;
+
+
+        public StudentResponse
+        (String studentId,int problemIndex,String factoredNumer,String factoredDenom,
+         List<Integer> xIntercepts,Double yIntercept,String domain,
+         List<Integer> verticalAsymptotes,Double obliqueSlope,Double obliqueIntercept) {
+
+            this.studentId = studentId;
+            this.problemIndex = problemIndex;
+            this.factoredNumer = factoredNumer;
+            this.factoredDenom = factoredDenom;
+            this.xIntercepts = xIntercepts;
+            this.yIntercept = yIntercept;
+            this.domain = domain;
+            this.verticalAsymptotes = verticalAsymptotes;
+            this.obliqueSlope = obliqueSlope;
+            this.obliqueIntercept = obliqueIntercept;
+        }
+    }
+
+
+    public static class ItemResult {
+
+        public final StudentResponse response;
+        public final EnumSet<Part> correct;
+        public final String error;         // why it was not graded, else null
+        public final long latencyNanos;
+
+
+        ItemResult
+        (StudentResponse response,EnumSet<Part> correct,String error,long latencyNanos) {
+
+            this.response = response;
+            this.correct = correct;
+            this.error = error;
+            this.latencyNanos = latencyNanos;
+        }
+
+
+        public int score() {
+
+            return correct.size();
+        }
+    }
+
+
+    public static class BatchReport {
+
+        public final List<ItemResult> results;  // same order as the responses
+        public final long wallNanos;
+
+
+        BatchReport
+        (List<ItemResult> results,long wallNanos) {
+
+            this.results = results;
+            this.wallNanos = wallNanos;
+        }
+
+
+        public double throughputPerSecond() {
+
+            return wallNanos == 0 ? 0 : results.size() * 1e9 / wallNanos;
+        }
+
+
+        public long latencyPercentileNanos
+        (double pct) {
+
+            if (results.isEmpty()) return 0;
+
+            long[] lat = new long[results.size()];
+            for (int i = 0; i < lat.length; i++) {
+            	lat[i] = results.get(i).latencyNanos;
+            }
+
+            Arrays.sort(lat);
+            int k = (int) Math.ceil(pct / 100.0 * lat.length) - 1;
+
+            return lat[Math.max(0,Math.min(lat.length - 1,k))];
+        }
+
+
+        public String summary() {
+
+            StringBuilder sb = new StringBuilder();
+            int errors = 0;
+
+            for (ItemResult r : results) {
+                if (r.error != null) errors++;
+            }
+
+            sb.append("--- Grading Report ---\n");
+            sb.append("Responses graded: ").append(results.size() - errors).append("\n");
+            if (errors > 0) sb.append("Could not grade: ").append(errors).append("\n");
+            sb.append(String.format("Wall time: %.1f ms%n",wallNanos / 1e6));
+            sb.append(String.format("Throughput: %.0f responses/s%n",throughputPerSecond()));
+            sb.append(String.format("Latency p50 / p99 / max: %.1f / %.1f / %.1f us%n",
+                latencyPercentileNanos(50) / 1e3,
+                latencyPercentileNanos(99) / 1e3,
+                latencyPercentileNanos(100) / 1e3));
+
+            // how many got each part right
+            for (Part part : Part.values()) {
+
+                int right = 0;
+                for (ItemResult r : results) {
+                    if (r.correct.contains(part)) right++;
+                }
+
+                sb.append(part).append(": ").append(right)
+                  .append("/").append(results.size()).append("\n");
+            }
+
+            return sb.toString();
+        }
+    }
+
+
+    public static BatchReport gradeAll
+    (List<RationalFunctionEngine.RationalFunction> problems,
+     List<StudentResponse> responses,int threads) {
+
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1,threads));
+        long start = System.nanoTime();
+
+        try {
+
+            // analyse each problem once, every response then just compares;
+            // a bad problem or response is noted on its items, the rest still grade
+            Expected[] keys = new Expected[problems.size()];
+            String[] keyErrors = new String[keys.length];
+            ItemResult[] out = new ItemResult[responses.size()];
+
+            pool.submit(() -> IntStream.range(0,keys.length).parallel()
+                .forEach(i -> {
+
+                    try {
+                        keys[i] = new Expected(problems.get(i));
+                    }
+                    catch (RuntimeException ex) {
+                    	keyErrors[i] = "problem " + i + " cannot be graded: " + ex.getMessage();
+                    }
+                }))
+                .get();
+
+            pool.submit(() -> IntStream.range(0,out.length).parallel()
+                .forEach(i -> {
+
+                    long t0 = System.nanoTime();
+                    StudentResponse r = responses.get(i);
+                    String error = null;
+
+                    if (r.problemIndex < 0 || r.problemIndex >= keys.length) {
+                    	error = "points at missing problem " + r.problemIndex;
+                    }
+                    else if (keys[r.problemIndex] == null) {
+                    	error = keyErrors[r.problemIndex];
+                    }
+
+                    EnumSet<Part> correct = error == null
+                        ? grade(keys[r.problemIndex],r) : EnumSet.noneOf(Part.class);
+                    out[i] = new ItemResult(r,correct,error,System.nanoTime() - t0);
+                }))
+                .get();
+
+            return new BatchReport(Collections.unmodifiableList(Arrays.asList(out)),
+                                   System.nanoTime() - start);
+        }
+        catch (InterruptedException ex) {
+        	Thread.currentThread().interrupt();
+        	throw new IllegalStateException("grading interrupted",ex);
+        }
+        catch (ExecutionException ex) {
+
+            if (ex.getCause() instanceof RuntimeException) {
+            	throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        finally {
+        	pool.shutdown();
+        }
+    }
+
+
+    public static EnumSet<Part> grade
+    (RationalFunctionEngine.RationalFunction rf,StudentResponse r) {
+
+        return grade(new Expected(rf),r);
+    }
+
+
+    // a response with every part right, handy for demos and benchmarks
+    public static StudentResponse perfectResponse
+    (String studentId,int problemIndex,RationalFunctionEngine.RationalFunction rf) {
+
+        Expected key = new Expected(rf);
+
+        StringBuilder domain = new StringBuilder("(-inf,");
+        for (int v : key.verticals) {
+        	domain.append(v).append(")U(").append(v).append(",");
+        }
+        domain.append("inf)");
+
+        return new StudentResponse(
+            studentId,problemIndex,
+            rf.numer.toFactorString(),rf.denom.toFactorString(),
+            new ArrayList<>(key.xIntercepts),key.yIntercept,domain.toString(),
+            new ArrayList<>(key.verticals),
+            key.hasOblique ? key.obliqueSlope : Double.NaN,
+            key.hasOblique ? key.obliqueIntercept : Double.NaN);
+    }
+
+
+    // ====== internal utilities ======
+
+
+    private static final double TOL = 1e-6;
+
+
+    // everything a response is checked against, built once per problem
+    private static class Expected {
+
+        final long[] numer;
+        final long[] denom;
+        final TreeSet<Integer> xIntercepts = new TreeSet<>();
+        final TreeSet<Integer> verticals = new TreeSet<>();
+        final double yIntercept;          // NaN when undefined
+        final boolean hasOblique;
+        final double obliqueSlope;
+        final double obliqueIntercept;
+
+
+        Expected
+        (RationalFunctionEngine.RationalFunction rf) {
+
+            // the key lists integer roots only, so anything else cannot be graded
+            if (!RationalFunctionAnalysis.rootsComplete(rf.numer)
+                || !RationalFunctionAnalysis.rootsComplete(rf.denom)) {
+            	throw new IllegalArgumentException(
+            		"problem has a real root that is not an integer: "
+            		+ rf.numer.toStandardString() + " / " + rf.denom.toStandardString());
+            }
+
+            numer = toLongs(rf.numer.coeffs);
+            denom = toLongs(rf.denom.coeffs);
+            xIntercepts.addAll(rf.numer.roots);
+            verticals.addAll(rf.denom.roots);
+
+            yIntercept = denom.length > 0 && denom[0] != 0
+                ? (numer.length > 0 ? numer[0] : 0) / (double) denom[0]
+                : Double.NaN;
+
+            // N = (a x + b) D + r, only when deg N = deg D + 1
+            int dn = numer.length - 1;
+            int dd = denom.length - 1;
+            hasOblique = dd >= 0 && dn == dd + 1;
+
+            if (hasOblique) {
+
+                double a = numer[dn] / (double) denom[dd];
+                double next = dd >= 1 ? denom[dd - 1] : 0;
+                obliqueSlope = a;
+                obliqueIntercept = (numer[dn - 1] - a * next) / denom[dd];
+            }
+            else {
+            	obliqueSlope = Double.NaN;
+            	obliqueIntercept = Double.NaN;
+            }
+        }
+    }
+
+
+    private static EnumSet<Part> grade
+    (Expected key,StudentResponse r) {
+
+        EnumSet<Part> correct = EnumSet.noneOf(Part.class);
+
+        if (factoredMatches(key,r.factoredNumer,r.factoredDenom)) {
+        	correct.add(Part.FACTORED);
+        }
+
+        if (r.xIntercepts != null && key.xIntercepts.equals(new TreeSet<>(r.xIntercepts))) {
+        	correct.add(Part.X_INTERCEPTS);
+        }
+
+        if (r.yIntercept != null && sameValue(key.yIntercept,r.yIntercept)) {
+        	correct.add(Part.Y_INTERCEPT);
+        }
+
+        if (r.domain != null && domainMatches(key.verticals,r.domain)) {
+        	correct.add(Part.DOMAIN);
+        }
+
+        if (r.verticalAsymptotes != null
+            && key.verticals.equals(new TreeSet<>(r.verticalAsymptotes))) {
+        	correct.add(Part.VERTICAL_ASYMPTOTES);
+        }
+
+        if (r.obliqueSlope != null && r.obliqueIntercept != null
+            && sameValue(key.obliqueSlope,r.obliqueSlope)
+            && sameValue(key.obliqueIntercept,r.obliqueIntercept)) {
+        	correct.add(Part.OBLIQUE_ASYMPTOTE);
+        }
+
+        return correct;
+    }
+
+
+    private static boolean sameValue
+    (double expected,double given) {
+
+        if (Double.isNaN(expected) || Double.isNaN(given)) {
+        	return Double.isNaN(expected) && Double.isNaN(given);
+        }
+
+        return Math.abs(expected - given) <= TOL * Math.max(1,Math.abs(expected));
+    }
+
+
+    private static boolean factoredMatches
+    (Expected key,String numerText,String denomText) {
+
+        if (numerText == null || denomText == null) return false;
+
+        // must actually be written as a product, not expanded
+        if (!isProductForm(numerText) || !isProductForm(denomText)) return false;
+
+        RationalFunctionEngine.Poly n;
+        RationalFunctionEngine.Poly d;
+
+        try {
+            n = RationalFunctionParser.parsePoly(numerText);
+            d = RationalFunctionParser.parsePoly(denomText);
+        }
+        catch (IllegalArgumentException ex) {
+        	return false;
+        }
+
+        if (d.coeffs.isEmpty()) return false;
+
+        // Ns / Ds == N / D  <=>  Ns * D == N * Ds
+        return Arrays.equals(
+            multiply(toLongs(n.coeffs),key.denom),
+            multiply(key.numer,toLongs(d.coeffs)));
+    }
+
+
+    // a product of factors that do not split any further; a lone sum such
+    // as "x-5" or "x^2+1" counts when it is itself one such factor
+    private static boolean isProductForm
+    (String text) {
+
+        int depth = 0;
+        int open = -1;
+        boolean sum = false;
+        String s = text.trim();
+
+        for (int i = 0; i < s.length(); i++) {
+
+            char c = s.charAt(i);
+
+            if (c == '(') {
+            	if (depth++ == 0) open = i;
+            }
+            else if (c == ')') {
+
+                // each parenthesized factor must not factor any further
+                if (--depth == 0 && !isProductForm(s.substring(open + 1,i))) return false;
+            }
+            else if ((c == '+' || c == '-') && depth == 0 && i > 0) {
+            	sum = true;
+            }
+        }
+
+        // "2(x-1)+3" is a sum of products, not one factor
+        return !sum || (!s.contains("(") && isIrreducible(s));
+    }
+
+
+    // primitive and linear, or a primitive quadratic with no rational roots;
+    // "2x-6" still has the factor 2 to pull out
+    private static boolean isIrreducible
+    (String factor) {
+
+        RationalFunctionEngine.Poly p;
+
+        try {
+            p = RationalFunctionParser.parsePoly(factor);
+        }
+        catch (IllegalArgumentException ex) {
+        	return false;
+        }
+
+        int content = 0;
+        for (int c : p.coeffs) content = gcd(content,c);
+
+        if (p.degree() >= 1 && content != 1) return false;
+        if (p.degree() <= 1) return true;
+
+        if (p.degree() == 2) {
+
+            long a = p.coeffs.get(2);
+            long b = p.coeffs.get(1);
+            long c = p.coeffs.get(0);
+            long disc;
+
+            try {
+                disc = Math.subtractExact(Math.multiplyExact(b,b),Math.multiplyExact(4 * a,c));
+            }
+            catch (ArithmeticException ex) {
+            	return false;
+            }
+
+            if (disc < 0) return true;
+
+            long root = (long) Math.sqrt((double) disc);
+            while (root * root > disc) root--;
+            while ((root + 1) * (root + 1) <= disc) root++;
+
+            return root * root != disc;
+        }
+
+        // no cheap test past degree 2
+        return false;
+    }
+
+
+    private static int gcd
+    (int a,int b) {
+
+        a = Math.abs(a);
+        b = Math.abs(b);
+
+        // euclidean algorithm
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+
+        return a;
+    }
+
+
+    private static boolean domainMatches
+    (TreeSet<Integer> excluded,String text) {
+
+        String s = text.replace(" ","").replace("∪","U").toLowerCase();
+        String[] parts = s.split("u");
+
+        // R minus k points is exactly k + 1 open intervals
+        if (parts.length != excluded.size() + 1) return false;
+
+        ArrayList<Double> cuts = new ArrayList<>();
+        cuts.add(Double.NEGATIVE_INFINITY);
+        for (int v : excluded) cuts.add((double) v);
+        cuts.add(Double.POSITIVE_INFINITY);
+
+        for (int i = 0; i < parts.length; i++) {
+
+            String p = parts[i];
+            if (!p.startsWith("(") || !p.endsWith(")")) return false;
+
+            String[] ends = p.substring(1,p.length() - 1).split(",");
+            if (ends.length != 2) return false;
+
+            Double lo = parseEnd(ends[0]);
+            Double hi = parseEnd(ends[1]);
+
+            if (lo == null || hi == null) return false;
+            if (!sameEnd(cuts.get(i),lo) || !sameEnd(cuts.get(i + 1),hi)) return false;
+        }
+
+        return true;
+    }
+
+
+    private static Double parseEnd
+    (String s) {
+
+        switch (s) {
+            case "-inf": case "-infinity": case "-∞": return Double.NEGATIVE_INFINITY;
+            case "inf": case "+inf": case "infinity": case "∞": case "+∞":
+                return Double.POSITIVE_INFINITY;
+            default:
+                try {
+                    return Double.parseDouble(s);
+                }
+                catch (NumberFormatException ex) {
+                	return null;
+                }
+        }
+    }
+
+
+    private static boolean sameEnd
+    (double expected,double given) {
+
+        if (Double.isInfinite(expected)) return expected == given;
+        return Math.abs(expected - given) <= TOL;
+    }
+
+
+    private static long[] toLongs
+    (List<Integer> coeffs) {
+
+        long[] out = new long[coeffs.size()];
+
+        for (int i = 0; i < out.length; i++) {
+        	out[i] = coeffs.get(i);
+        }
+
+        return out;
+    }
+
+
+    private static long[] multiply
+    (long[] a,long[] b) {
+
+        if (a.length == 0 || b.length == 0) return new long[0];
+
+        long[] out = new long[a.length + b.length - 1];
+
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                out[i + j] += a[i] * b[j];
+            }
+        }
+
+        return out;
+    }
+}
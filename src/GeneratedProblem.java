@@ -0,0 +1,103 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class GeneratedProblem {
+
+    public final long index;     // position in the (seed, count) job
+    public final int seed;       // type this into the frame to get it back
+    public final RationalFunctionEngine.RationalFunction function;
+    public final String answerKey; // null unless asked for
+
+
+    public GeneratedProblem
+    (long index,int seed,RationalFunctionEngine.RationalFunction function,String answerKey) {
+
+        this.index = index;
+        this.seed = seed;
+        this.function = function;
+        this.answerKey = answerKey;
+    }
+
+
+    // problem 'index' of a seeded job, the same on every thread or process
+    public static GeneratedProblem generate
+    (long jobSeed,long index,int maxDegree,String difficulty,boolean withAnswers) {
+
+        int seed = RationalFunctionEngine.problemSeed(jobSeed,index);
+        RationalFunctionEngine.RationalFunction rf = RationalFunctionEngine
+            .generateWithRetry(maxDegree,difficulty,new Random(seed));
+
+        if (rf == null) {
+        	throw new IllegalStateException(
+        		"problem " + index + " (seed " + seed + "): too many attempts");
+        }
+
+        String key = withAnswers ? answerKeyText(rf) : null;
+
+        return new GeneratedProblem(index,seed,rf,key);
+    }
+
+
+    // one tab-separated line: index, seed, N coeffs, N roots, D coeffs, D roots
+    public String toRecord() {
+
+        return index + "\t" + seed
+            + "\t" + join(function.numer.coeffs) + "\t" + join(function.numer.roots)
+            + "\t" + join(function.denom.coeffs) + "\t" + join(function.denom.roots);
+    }
+
+
+    public static GeneratedProblem fromRecord
+    (String line) {
+
+        String[] f = line.split("\t",-1);
+
+        if (f.length != 6) {
+        	throw new IllegalArgumentException("bad problem record: " + line);
+        }
+
+        RationalFunctionEngine.Poly n = new RationalFunctionEngine.Poly(split(f[2]),split(f[3]));
+        RationalFunctionEngine.Poly d = new RationalFunctionEngine.Poly(split(f[4]),split(f[5]));
+
+        return new GeneratedProblem(Long.parseLong(f[0]),Integer.parseInt(f[1]),
+            new RationalFunctionEngine.RationalFunction(n,d),null);
+    }
+
+
+    // the same text the frame shows under "Show Answer Key"
+    public static String answerKeyText
+    (RationalFunctionEngine.RationalFunction rf) {
+
+        return RationalFunctionEngine.buildAnswerKey(rf)
+             + RationalFunctionAnalysis.buildAnalysisText(rf);
+    }
+
+
+    private static String join
+    (List<Integer> values) {
+
+        StringBuilder sb = new StringBuilder();
+
+        for (int v : values) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(v);
+        }
+
+        return sb.toString();
+    }
+
+
+    private static ArrayList<Integer> split
+    (String field) {
+
+        ArrayList<Integer> out = new ArrayList<>();
+        if (field.isEmpty()) return out;
+
+        for (String part : field.split(",")) {
+        	out.add(Integer.parseInt(part));
+        }
+
+        return out;
+    }
+}
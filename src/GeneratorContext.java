@@ -0,0 +1,325 @@
+import java.util.ArrayList;
+import java.util.random.RandomGenerator;
+
+public class GeneratorContext {
+
+    // ====== public api ======
+
+
+    // roots stay in [-ROOT_ABS, ROOT_ABS], so a root set fits one int
+    public static final int ROOT_ABS = 6;
+
+
+    // reusable generator state; one per thread, not thread-safe
+    public GeneratorContext
+    (int maxDegree) {
+
+        ensureCapacity(Math.max(maxDegree,1));
+    }
+
+
+    // same problem as RationalFunctionEngine.generateRational for the same
+    // generator state (a java.util.Random is draw-for-draw identical); fills
+    // the scratch arrays and returns false where that returns null
+    public boolean next
+    (int maxDegree,String difficulty,RandomGenerator rng) {
+
+        ensureCapacity(Math.max(maxDegree,1));
+
+        // pick degrees for n and d
+        int degD = randInt(rng,1,maxDegree - 1);
+        int degN = degD + 1;
+
+        // avoid both at maxDegree
+        if (degN == maxDegree && degD == maxDegree) {
+            if (rng.nextBoolean()) degN--;
+            else degD--;
+        }
+
+        boolean allowMult = !difficulty.equals("EASY");
+        boolean hard = "HARD".equals(difficulty);
+
+        randomRootsWithMultiplicity(rootsN,degN,allowMult,rng);
+        randomRootsWithMultiplicity(rootsD,degD,allowMult,rng);
+        rootCountN = degN;
+        rootCountD = degD;
+
+        // bit (r + ROOT_ABS) set for each numerator root
+        int numerRootSet = 0;
+        for (int i = 0; i < degN; i++) numerRootSet |= bit(rootsN[i]);
+
+        // try to avoid shared roots between n and d
+        for (int i = 0; i < degD; i++) {
+
+            int guard = 0;
+            int current = rootsD[i];
+
+            while ((numerRootSet & bit(current)) != 0 && guard < 20) {
+                current = randomNonZeroDifferent(current,numerRootSet,rng);
+                guard++;
+            }
+
+            rootsD[i] = current;
+        }
+
+        // final check for shared roots (if still same, give up)
+        for (int i = 0; i < degD; i++) {
+            if ((numerRootSet & bit(rootsD[i])) != 0) return false;
+        }
+
+        // choose leading coeffs
+        int leadN;
+        int leadD;
+
+        if (hard) {
+
+            // hard mode: force non ±1 leading coeffs
+            leadN = pickNonUnitLeading(rng);
+            leadD = pickNonUnitLeading(rng);
+        }
+        else {
+
+            // easy/medium: allow ±1, ±2, ±3 but not 0
+            leadN = randInt(rng,-3,3);
+            leadD = randInt(rng,-3,3);
+
+            if (leadN == 0) leadN = 1;
+            if (leadD == 0) leadD = 1;
+        }
+
+        coeffCountN = expandFromRoots(coeffN,rootsN,degN,leadN);
+        coeffCountD = expandFromRoots(coeffD,rootsD,degD,leadD);
+
+        // simplify by gcd unless that breaks the hard-mode leading coeff
+        divideContent(coeffN,coeffCountN,hard);
+        divideContent(coeffD,coeffCountD,hard);
+
+        coeffCountN = trimmedLength(coeffN,coeffCountN);
+        coeffCountD = trimmedLength(coeffD,coeffCountD);
+
+        // need at least degree 1 in denom
+        return coeffCountD >= 2;
+    }
+
+
+    // next() wrapped as the engine's RationalFunction, null on give-up
+    public RationalFunctionEngine.RationalFunction generate
+    (int maxDegree,String difficulty,RandomGenerator rng) {
+
+        return next(maxDegree,difficulty,rng) ? toFunction() : null;
+    }
+
+
+    public RationalFunctionEngine.RationalFunction generateWithRetry
+    (int maxDegree,String difficulty,RandomGenerator rng) {
+
+        for (int i = 0; i < RationalFunctionEngine.MAX_ATTEMPTS; i++) {
+            if (next(maxDegree,difficulty,rng)) return toFunction();
+        }
+
+        return null; // every attempt failed
+    }
+
+
+    // the last successful next() as a RationalFunction
+    public RationalFunctionEngine.RationalFunction toFunction() {
+
+        RationalFunctionEngine.Poly n = new RationalFunctionEngine.Poly(
+            boxed(coeffN,coeffCountN),boxed(rootsN,rootCountN));
+        RationalFunctionEngine.Poly d = new RationalFunctionEngine.Poly(
+            boxed(coeffD,coeffCountD),boxed(rootsD,rootCountD));
+
+        return new RationalFunctionEngine.RationalFunction(n,d);
+    }
+
+
+    // read-only views of the last next(); coeffs are low degree first
+    public int numerDegree() { return coeffCountN - 1; }
+    public int denomDegree() { return coeffCountD - 1; }
+    public int numerCoeff(int i) { return coeffN[i]; }
+    public int denomCoeff(int i) { return coeffD[i]; }
+    public int numerRootCount() { return rootCountN; }
+    public int denomRootCount() { return rootCountD; }
+    public int numerRoot(int i) { return rootsN[i]; }
+    public int denomRoot(int i) { return rootsD[i]; }
+
+
+    // ====== internal utilities ======
+
+
+    private int[] rootsN;
+    private int[] rootsD;
+    private int[] coeffN;
+    private int[] coeffD;
+    private int rootCountN;
+    private int rootCountD;
+    private int coeffCountN;
+    private int coeffCountD;
+
+
+    private void ensureCapacity
+    (int maxDegree) {
+
+        if (rootsN != null && rootsN.length >= maxDegree) return;
+
+        rootsN = new int[maxDegree];
+        rootsD = new int[maxDegree];
+        coeffN = new int[maxDegree + 1];
+        coeffD = new int[maxDegree + 1];
+    }
+
+
+    private static int bit
+    (int root) {
+
+        return 1 << (root + ROOT_ABS);
+    }
+
+
+    private static int randInt
+    (RandomGenerator rng,int lo,int hi) {
+
+        if (lo == hi) return lo;
+        return lo + rng.nextInt(hi - lo + 1);
+    }
+
+
+    private static int randomNonZeroDifferent
+    (int current,int forbidden,RandomGenerator rng) {
+
+        int v = current;
+        int guard = 0;
+
+        // keep picking until not same and not forbidden
+        while ((v == current || (forbidden & bit(v)) != 0) && guard < 50) {
+
+            v = randInt(rng,-ROOT_ABS,ROOT_ABS);
+            if (v == 0) v = 1; // avoid 0
+            guard++;
+        }
+
+        return v;
+    }
+
+
+    private static void randomRootsWithMultiplicity
+    (int[] roots,int degree,boolean allowMult,RandomGenerator rng) {
+
+        int n = 0;
+
+        // keep adding roots until degree reached
+        while (n < degree) {
+
+            int root = randInt(rng,-ROOT_ABS,ROOT_ABS);
+            if (root == 0) root = 1;
+
+            int mult = 1;
+
+            // sometimes make a double root
+            if (allowMult && degree - n >= 2 && rng.nextDouble() < 0.25) {
+                mult = 2;
+            }
+
+            for (int i = 0; i < mult; i++) {
+            	roots[n++] = root;
+            }
+        }
+
+        // the same swaps, and draws, as Collections.shuffle on a list
+        for (int i = degree; i > 1; i--) {
+
+            int j = rng.nextInt(i);
+            int t = roots[i - 1];
+            roots[i - 1] = roots[j];
+            roots[j] = t;
+        }
+    }
+
+
+    // leading * prod (x - r) into out, in int like the engine; returns length
+    private static int expandFromRoots
+    (int[] out,int[] roots,int count,int leadingCoeff) {
+
+        out[0] = leadingCoeff;
+        int len = 1;
+
+        // repeatedly multiply by (x - r), in place from the top down
+        for (int k = 0; k < count; k++) {
+
+            int r = roots[k];
+            out[len] = out[len - 1];
+
+            for (int j = len - 1; j >= 1; j--) {
+            	out[j] = out[j - 1] - r * out[j];
+            }
+
+            out[0] = -r * out[0];
+            len++;
+        }
+
+        return len;
+    }
+
+
+    private static void divideContent
+    (int[] coeffs,int len,boolean hard) {
+
+        int g = 0;
+        for (int i = 0; i < len; i++) g = gcd(g,coeffs[i]);
+
+        if (g <= 1) return;
+        if (hard && Math.abs(coeffs[len - 1] / g) == 1) return;
+
+        for (int i = 0; i < len; i++) coeffs[i] /= g;
+    }
+
+
+    private static int gcd
+    (int a,int b) {
+
+        a = Math.abs(a);
+        b = Math.abs(b);
+
+        // euclidean algorithm
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+
+        return a;
+    }
+
+
+    private static int trimmedLength
+    (int[] coeffs,int len) {
+
+        while (len > 0 && coeffs[len - 1] == 0) len--;
+
+        return len;
+    }
+
+
+    private static int pickNonUnitLeading
+    (RandomGenerator rng) {
+
+        // pick from {-3,-2,2,3}, avoid ±1 and 0
+        int v = 0;
+
+        while (v == 0 || Math.abs(v) == 1) {
+            v = randInt(rng,-3,3);
+        }
+
+        return v;
+    }
+
+
+    private static ArrayList<Integer> boxed
+    (int[] values,int len) {
+
+        ArrayList<Integer> out = new ArrayList<>(len);
+        for (int i = 0; i < len; i++) out.add(values[i]);
+
+        return out;
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+import java.util.List;
+
+public class GraphFeatures {
+
+    public static final byte ROOT = 0;          // x-intercept, y = 0
+    public static final byte ASYMPTOTE = 1;     // vertical asymptote, y undefined
+    public static final byte Y_INTERCEPT = 2;
+
+    // sorted by x; a point's kind and y share its position
+    public final double[] xs;
+    public final double[] ys;
+    public final byte[] kinds;
+
+
+    public GraphFeatures
+    (double[] xs,double[] ys,byte[] kinds) {
+
+        this.xs = xs;
+        this.ys = ys;
+        this.kinds = kinds;
+    }
+
+
+    // once per function: distinct roots, asymptotes and the y-intercept
+    public static GraphFeatures build
+    (RationalFunctionEngine.RationalFunction rf) {
+
+        // every real root, typed functions need not have integer ones
+        List<double[]> numer = RationalFunctionAnalysis.realRoots(rf.numer);
+        List<double[]> denom = RationalFunctionAnalysis.realRoots(rf.denom);
+        double y0 = rf.valueAt(0);
+
+        // N(0) = 0 puts the y-intercept on the root at 0; the root covers both
+        boolean hasY = !Double.isNaN(y0) && !Double.isInfinite(y0) && rf.numer.coeffs.get(0) != 0;
+
+        int n = numer.size() + denom.size() + (hasY ? 1 : 0);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        byte[] kind = new byte[n];
+        int k = 0;
+
+        for (double[] r : numer) {
+        	x[k] = r[0]; y[k] = 0; kind[k] = ROOT; k++;
+        }
+
+        for (double[] r : denom) {
+        	x[k] = r[0]; y[k] = Double.NaN; kind[k] = ASYMPTOTE; k++;
+        }
+
+        if (hasY) {
+        	x[k] = 0; y[k] = y0; kind[k] = Y_INTERCEPT; k++;
+        }
+
+        // sort positions by x, keeping the columns together
+        Integer[] idx = new Integer[n];
+        for (int i = 0; i < n; i++) idx[i] = i;
+        Arrays.sort(idx,(a,b) -> Double.compare(x[a],x[b]));
+
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        byte[] kinds = new byte[n];
+
+        for (int i = 0; i < n; i++) {
+            xs[i] = x[idx[i]];
+            ys[i] = y[idx[i]];
+            kinds[i] = kind[idx[i]];
+        }
+
+        return new GraphFeatures(xs,ys,kinds);
+    }
+
+
+    public int size() {
+
+        return xs.length;
+    }
+
+
+    // the feature nearest x, or -1 if none lies within maxDist
+    public int nearest
+    (double x,double maxDist) {
+
+        int i = Arrays.binarySearch(xs,x);
+        if (i >= 0) return i;
+
+        int hi = -i - 1;   // first position with xs > x
+        int best = -1;
+
+        if (hi < xs.length && xs[hi] - x <= maxDist) best = hi;
+        if (hi > 0 && x - xs[hi - 1] <= maxDist
+            && (best < 0 || x - xs[hi - 1] < xs[hi] - x)) {
+        	best = hi - 1;
+        }
+
+        return best;
+    }
+}
@@ -0,0 +1,38 @@
+public class GraphSamples {
+
+    public final double xMin;
+    public final double xMax;
+    public final double[] ys;    // one per pixel column, NaN where undefined
+
+
+    public GraphSamples
+    (double xMin,double xMax,double[] ys) {
+
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.ys = ys;
+    }
+
+
+    // f at every pixel column of a 'width' wide view, same x mapping as GraphPanel
+    public static GraphSamples sample
+    (RationalFunctionEngine.RationalFunction rf,double xMin,double xMax,int width) {
+
+        double[] ys = new double[Math.max(0,width)];
+
+        for (int px = 0; px < ys.length; px++) {
+
+            double y = rf.valueAt(xMin + (xMax - xMin) * (px / (double) width));
+            ys[px] = Double.isInfinite(y) ? Double.NaN : y;
+        }
+
+        return new GraphSamples(xMin,xMax,ys);
+    }
+
+
+    public boolean matches
+    (double xMin,double xMax,int width) {
+
+        return this.xMin == xMin && this.xMax == xMax && ys.length == width;
+    }
+}
@@ -0,0 +1,368 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+public class ProblemIndex {
+
+    // ====== public api ======
+
+
+    // root values with their own bitset; anything else is found by a scan
+    public static final int ROOT_WINDOW = 16;
+
+
+    public ProblemIndex
+    (int maxDegree) {
+
+        if (maxDegree < 1) throw new IllegalArgumentException("maxDegree must be >= 1");
+
+        this.maxDegree = maxDegree;
+        this.coeffStride = maxDegree + 1;
+
+        numerDegree = newBitSets(maxDegree + 1);
+        denomDegree = newBitSets(maxDegree + 1);
+        numerRoot = newBitSets(2 * ROOT_WINDOW + 1);
+        denomRoot = newBitSets(2 * ROOT_WINDOW + 1);
+
+        grow(1024);
+    }
+
+
+    // appends one problem as a row, returns its row number
+    public int add
+    (RationalFunctionEngine.RationalFunction rf) {
+
+        int dn = rf.numer.degree();
+        int dd = rf.denom.degree();
+
+        if (dn > maxDegree || dd > maxDegree) {
+        	throw new IllegalArgumentException("degree above index maximum " + maxDegree);
+        }
+
+        if (size == degN.length) grow(size * 2);
+
+        int row = size++;
+
+        degN[row] = (byte) dn;
+        degD[row] = (byte) dd;
+        putCoeffs(coeffN,row,rf.numer.coeffs);
+        putCoeffs(coeffD,row,rf.denom.coeffs);
+        rootCountN[row] = putRoots(rootsN,row,rf.numer.roots);
+        rootCountD[row] = putRoots(rootsD,row,rf.denom.roots);
+
+        // derived features, one bit per row each
+        if (dn >= 0) numerDegree[dn].set(row);
+        denomDegree[Math.max(dd,0)].set(row);
+        if (dn == dd + 1) slant.set(row);
+        if (dn <= dd) horizontal.set(row);
+        if (hasRepeat(rf.numer.roots)) numerRepeated.set(row);
+        if (hasRepeat(rf.denom.roots)) denomRepeated.set(row);
+
+        for (int r : rf.numer.roots) {
+            if (Math.abs(r) <= ROOT_WINDOW) numerRoot[r + ROOT_WINDOW].set(row);
+        }
+
+        for (int r : rf.denom.roots) {
+            if (Math.abs(r) <= ROOT_WINDOW) denomRoot[r + ROOT_WINDOW].set(row);
+        }
+
+        return row;
+    }
+
+
+    public int size() {
+
+        return size;
+    }
+
+
+    // rebuilds the row as a normal RationalFunction
+    public RationalFunctionEngine.RationalFunction get
+    (int row) {
+
+        checkRow(row);
+
+        RationalFunctionEngine.Poly n = new RationalFunctionEngine.Poly(
+            getCoeffs(coeffN,row,degN[row]),getRoots(rootsN,row,rootCountN[row]));
+        RationalFunctionEngine.Poly d = new RationalFunctionEngine.Poly(
+            getCoeffs(coeffD,row,degD[row]),getRoots(rootsD,row,rootCountD[row]));
+
+        return new RationalFunctionEngine.RationalFunction(n,d);
+    }
+
+
+    // heap held by the columns and bitsets, arrays counted at capacity
+    public long bytesUsed() {
+
+        long bytes = (long) degN.length * 2                            // degrees
+                   + (long) coeffN.length * 4 * 2                      // coeffs
+                   + (long) rootsN.length * 2 * 2                      // roots
+                   + (long) rootCountN.length * 2;                     // root counts
+
+        for (BitSet b : allBitSets()) bytes += b.size() / 8;
+
+        return bytes;
+    }
+
+
+    public Query query() {
+
+        return new Query();
+    }
+
+
+    // filters AND together; every step is a bitset intersection except
+    // roots outside ROOT_WINDOW, which fall back to scanning the column
+    public class Query {
+
+        private final BitSet acc = new BitSet();
+
+
+        Query() {
+
+            acc.set(0,size);
+        }
+
+
+        public Query numerDegree(int d) {
+
+            return and(d >= 0 && d <= maxDegree ? numerDegree[d] : new BitSet(),true);
+        }
+
+
+        public Query denomDegree(int d) {
+
+            return and(d >= 0 && d <= maxDegree ? denomDegree[d] : new BitSet(),true);
+        }
+
+
+        public Query numerRepeatedRoot(boolean want) {
+
+            return and(numerRepeated,want);
+        }
+
+
+        public Query denomRepeatedRoot(boolean want) {
+
+            return and(denomRepeated,want);
+        }
+
+
+        public Query slantAsymptote(boolean want) {
+
+            return and(slant,want);
+        }
+
+
+        public Query horizontalAsymptote(boolean want) {
+
+            return and(horizontal,want);
+        }
+
+
+        // x-intercept at v (or not)
+        public Query numerRoot(int v,boolean want) {
+
+            return and(Math.abs(v) <= ROOT_WINDOW ? numerRoot[v + ROOT_WINDOW]
+                                                  : scanRoots(rootsN,rootCountN,v),want);
+        }
+
+
+        // vertical asymptote at v (or not)
+        public Query denomRoot(int v,boolean want) {
+
+            return and(Math.abs(v) <= ROOT_WINDOW ? denomRoot[v + ROOT_WINDOW]
+                                                  : scanRoots(rootsD,rootCountD,v),want);
+        }
+
+
+        public BitSet rows() {
+
+            return (BitSet) acc.clone();
+        }
+
+
+        public int count() {
+
+            return acc.cardinality();
+        }
+
+
+        private Query and
+        (BitSet feature,boolean want) {
+
+            if (want) acc.and(feature);
+            else acc.andNot(feature);
+
+            return this;
+        }
+    }
+
+
+    // ====== internal utilities ======
+
+
+    private final int maxDegree;
+    private final int coeffStride;   // per-row slots in coeffN / coeffD
+    private int size = 0;
+
+    // struct-of-arrays: row i lives at i, or at i * stride
+    private byte[] degN;
+    private byte[] degD;
+    private int[] coeffN;
+    private int[] coeffD;
+    private short[] rootsN;
+    private short[] rootsD;
+    private byte[] rootCountN;
+    private byte[] rootCountD;
+
+    private final BitSet[] numerDegree;
+    private final BitSet[] denomDegree;
+    private final BitSet[] numerRoot;
+    private final BitSet[] denomRoot;
+    private final BitSet numerRepeated = new BitSet();
+    private final BitSet denomRepeated = new BitSet();
+    private final BitSet slant = new BitSet();
+    private final BitSet horizontal = new BitSet();
+
+
+    private void grow
+    (int rows) {
+
+        degN = degN == null ? new byte[rows] : Arrays.copyOf(degN,rows);
+        degD = degD == null ? new byte[rows] : Arrays.copyOf(degD,rows);
+        coeffN = coeffN == null ? new int[rows * coeffStride] : Arrays.copyOf(coeffN,rows * coeffStride);
+        coeffD = coeffD == null ? new int[rows * coeffStride] : Arrays.copyOf(coeffD,rows * coeffStride);
+        rootsN = rootsN == null ? new short[rows * maxDegree] : Arrays.copyOf(rootsN,rows * maxDegree);
+        rootsD = rootsD == null ? new short[rows * maxDegree] : Arrays.copyOf(rootsD,rows * maxDegree);
+        rootCountN = rootCountN == null ? new byte[rows] : Arrays.copyOf(rootCountN,rows);
+        rootCountD = rootCountD == null ? new byte[rows] : Arrays.copyOf(rootCountD,rows);
+    }
+
+
+    private void putCoeffs
+    (int[] col,int row,List<Integer> coeffs) {
+
+        int base = row * coeffStride;
+
+        for (int i = 0; i < coeffs.size(); i++) {
+        	col[base + i] = coeffs.get(i);
+        }
+    }
+
+
+    private byte putRoots
+    (short[] col,int row,List<Integer> roots) {
+
+        int base = row * maxDegree;
+
+        for (int i = 0; i < roots.size(); i++) {
+
+            int r = roots.get(i);
+
+            if (r < Short.MIN_VALUE || r > Short.MAX_VALUE) {
+            	throw new IllegalArgumentException("root " + r + " too large to index");
+            }
+
+            col[base + i] = (short) r;
+        }
+
+        return (byte) roots.size();
+    }
+
+
+    private ArrayList<Integer> getCoeffs
+    (int[] col,int row,int degree) {
+
+        ArrayList<Integer> out = new ArrayList<>();
+        int base = row * coeffStride;
+
+        for (int i = 0; i <= degree; i++) {
+        	out.add(col[base + i]);
+        }
+
+        return out;
+    }
+
+
+    private ArrayList<Integer> getRoots
+    (short[] col,int row,int count) {
+
+        ArrayList<Integer> out = new ArrayList<>();
+        int base = row * maxDegree;
+
+        for (int i = 0; i < count; i++) {
+        	out.add((int) col[base + i]);
+        }
+
+        return out;
+    }
+
+
+    private BitSet scanRoots
+    (short[] col,byte[] counts,int v) {
+
+        BitSet out = new BitSet();
+
+        for (int row = 0; row < size; row++) {
+
+            int base = row * maxDegree;
+
+            for (int i = 0; i < counts[row]; i++) {
+
+                if (col[base + i] == v) {
+                	out.set(row);
+                	break;
+                }
+            }
+        }
+
+        return out;
+    }
+
+
+    private static boolean hasRepeat
+    (List<Integer> roots) {
+
+        for (int i = 0; i < roots.size(); i++) {
+            for (int j = i + 1; j < roots.size(); j++) {
+                if (roots.get(i).equals(roots.get(j))) return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    private void checkRow
+    (int row) {
+
+        if (row < 0 || row >= size) {
+        	throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+    }
+
+
+    private ArrayList<BitSet> allBitSets() {
+
+        ArrayList<BitSet> all = new ArrayList<>(Arrays.asList(
+            numerRepeated,denomRepeated,slant,horizontal));
+        all.addAll(Arrays.asList(numerDegree));
+        all.addAll(Arrays.asList(denomDegree));
+        all.addAll(Arrays.asList(numerRoot));
+        all.addAll(Arrays.asList(denomRoot));
+
+        return all;
+    }
+
+
+    private static BitSet[] newBitSets
+    (int n) {
+
+        BitSet[] out = new BitSet[n];
+        for (int i = 0; i < n; i++) out[i] = new BitSet();
+
+        return out;
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class ProblemPrefetcher {
+
+    // ====== public api ======
+
+
+    // everything the "next problem" click needs, built ahead of time
+    public static class Ready {
+
+        public final int seed;       // typing this seed gives the same problem
+        public final RationalFunctionEngine.RationalFunction function;
+        public final String problemText;
+        public final String answerKey;
+        public final GraphSamples samples;
+
+
+        Ready
+        (int seed,RationalFunctionEngine.RationalFunction function,String problemText,
+         String answerKey,GraphSamples samples) {
+
+            this.seed = seed;
+            this.function = function;
+            this.problemText = problemText;
+            this.answerKey = answerKey;
+            this.samples = samples;
+        }
+    }
+
+
+    public ProblemPrefetcher
+    (int perConfig,double xMin,double xMax,int sampleWidth) {
+
+        this.perConfig = perConfig;
+        this.xMin = xMin;
+        this.xMax = xMax;
+        this.sampleWidth = sampleWidth;
+
+        worker = new Thread(this::fillLoop,"problem-prefetch");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+
+    // a queued problem if there is one, else built right now; unseeded
+    // only, a seeded request must go through prepare() so it is exact
+    public Ready next
+    (int maxDegree,String difficulty) {
+
+        ArrayBlockingQueue<Ready> q = queueFor(maxDegree,difficulty);
+        Ready r = q.poll();
+
+        wake(); // refill what we just took
+
+        if (r != null) return r;
+        return prepare(ThreadLocalRandom.current().nextInt(),maxDegree,difficulty,
+                       xMin,xMax,sampleWidth);
+    }
+
+
+    // start filling a configuration before anyone asks for it
+    public void warm
+    (int maxDegree,String difficulty) {
+
+        queueFor(maxDegree,difficulty);
+        wake();
+    }
+
+
+    // the panel was resized, sample future problems to the new width
+    public void setSampleWidth
+    (int width) {
+
+        if (width == sampleWidth) return;
+
+        sampleWidth = width;
+
+        // stale geometry still works, GraphPanel just re-samples it
+        wake();
+    }
+
+
+    public void close() {
+
+        worker.interrupt();
+    }
+
+
+    // one problem from its seed, the same as the frame's seeded path
+    public static Ready prepare
+    (int seed,int maxDegree,String difficulty,double xMin,double xMax,int sampleWidth) {
+
+        RationalFunctionEngine.RationalFunction rf = RationalFunctionEngine
+            .generateWithRetry(maxDegree,difficulty,new Random(seed));
+
+        if (rf == null) return null;
+
+        return new Ready(seed,rf,
+            RationalFunctionEngine.buildProblemText(rf),
+            GeneratedProblem.answerKeyText(rf),
+            GraphSamples.sample(rf,xMin,xMax,sampleWidth));
+    }
+
+
+    // ====== internal utilities ======
+
+
+    private final int perConfig;
+    private final double xMin;
+    private final double xMax;
+    private volatile int sampleWidth;
+
+    private final ConcurrentHashMap<String,ArrayBlockingQueue<Ready>> queues =
+        new ConcurrentHashMap<>();
+    private final Thread worker;
+
+    private final Object signal = new Object();
+    private boolean dirty = false;   // guarded by signal
+
+
+    private ArrayBlockingQueue<Ready> queueFor
+    (int maxDegree,String difficulty) {
+
+        return queues.computeIfAbsent(maxDegree + ":" + difficulty,
+                                      k -> new ArrayBlockingQueue<>(perConfig));
+    }
+
+
+    private void wake() {
+
+        synchronized (signal) {
+            dirty = true;
+            signal.notifyAll();
+        }
+    }
+
+
+    private void fillLoop() {
+
+        Random seeds = new Random();
+
+        try {
+
+            while (!Thread.currentThread().isInterrupted()) {
+
+                // top up every configuration in turn, one problem each pass
+                boolean worked = false;
+
+                for (String key : queues.keySet()) {
+
+                    ArrayBlockingQueue<Ready> q = queues.get(key);
+                    if (q.remainingCapacity() == 0) continue;
+
+                    int split = key.indexOf(':');
+                    int degree = Integer.parseInt(key.substring(0,split));
+                    String difficulty = key.substring(split + 1);
+
+                    try {
+
+                        Ready r = prepare(seeds.nextInt(),degree,difficulty,
+                                          xMin,xMax,sampleWidth);
+                        if (r != null) q.offer(r);
+                        worked = true;
+                    }
+                    catch (RuntimeException ex) {
+                    	// a config the engine rejects; next() will surface it
+                    	queues.remove(key);
+                    }
+                }
+
+                if (!worked) {
+
+                    synchronized (signal) {
+                        while (!dirty) signal.wait();
+                        dirty = false;
+                    }
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+        	// closed
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProblemPublisher implements Flow.Publisher<GeneratedProblem> {
+
+    private final int maxDegree;
+    private final String difficulty;
+    private final long seed;
+    private final long count;          // Long.MAX_VALUE for an endless stream
+    private final boolean withAnswers;
+    private final int parallelism;     // most problems ever in flight
+    private final Executor executor;
+
+
+    public ProblemPublisher
+    (int maxDegree,String difficulty,long seed,long count,boolean withAnswers) {
+
+        this(maxDegree,difficulty,seed,count,withAnswers,
+             Runtime.getRuntime().availableProcessors(),ForkJoinPool.commonPool());
+    }
+
+
+    public ProblemPublisher
+    (int maxDegree,String difficulty,long seed,long count,boolean withAnswers,
+     int parallelism,Executor executor) {
+
+        if (count < 0) throw new IllegalArgumentException("count must be >= 0");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+
+        this.maxDegree = maxDegree;
+        this.difficulty = difficulty;
+        this.seed = seed;
+        this.count = count;
+        this.withAnswers = withAnswers;
+        this.parallelism = parallelism;
+        this.executor = executor;
+    }
+
+
+    // every subscriber gets the whole job from index 0, in index order
+    @Override
+    public void subscribe(Flow.Subscriber<? super GeneratedProblem> subscriber) {
+
+        if (subscriber == null) throw new NullPointerException("subscriber");
+
+        Subscription s = new Subscription(subscriber);
+        subscriber.onSubscribe(s);
+        s.drain();
+    }
+
+
+    // production is driven only by request(n): never more than the
+    // outstanding demand, and never more than 'parallelism' at once,
+    // so a slow subscriber holds at most 'parallelism' finished problems
+    private class Subscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super GeneratedProblem> subscriber;
+
+        private final AtomicLong requested = new AtomicLong(); // total asked for
+        private final AtomicInteger wip = new AtomicInteger(); // drain guard
+        private final ConcurrentHashMap<Long,GeneratedProblem> ready = new ConcurrentHashMap<>();
+
+        // only touched inside drain()
+        private long nextToSchedule = 0;
+        private long nextToEmit = 0;
+        private int inFlight = 0;
+
+        private volatile boolean cancelled = false;
+        private volatile Throwable error = null;
+        private boolean done = false;
+
+
+        Subscription
+        (Flow.Subscriber<? super GeneratedProblem> subscriber) {
+
+            this.subscriber = subscriber;
+        }
+
+
+        @Override
+        public void request(long n) {
+
+            if (n <= 0) {
+            	error = new IllegalArgumentException("request(" + n + "), must be > 0");
+            }
+            else {
+            	// cumulative demand, saturating at "unbounded"
+            	requested.getAndAccumulate(n,(a,b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+            }
+
+            drain();
+        }
+
+
+        @Override
+        public void cancel() {
+
+            cancelled = true;
+        }
+
+
+        void drain() {
+
+            if (wip.getAndIncrement() != 0) return;
+
+            int missed = 1;
+
+            do {
+
+                if (done || cancelled) {
+                	ready.clear();
+                }
+                else if (error != null) {
+                	done = true;
+                	ready.clear();
+                	subscriber.onError(error);
+                }
+                else {
+                	emitAndSchedule();
+                }
+
+                missed = wip.addAndGet(-missed);
+            }
+            while (missed != 0);
+        }
+
+
+        private void emitAndSchedule() {
+
+            // hand out whatever is ready, strictly in index order
+            GeneratedProblem p;
+
+            while (!cancelled && nextToEmit < requested.get()
+                   && (p = ready.remove(nextToEmit)) != null) {
+
+                nextToEmit++;
+                inFlight--;
+                subscriber.onNext(p);
+            }
+
+            if (cancelled) return;
+
+            if (nextToEmit == count) {
+            	done = true;
+            	subscriber.onComplete();
+            	return;
+            }
+
+            // start more only against demand nobody is working on yet
+            while (inFlight < parallelism && nextToSchedule < count
+                   && nextToSchedule < requested.get()) {
+
+                long index = nextToSchedule++;
+                inFlight++;
+
+                executor.execute(() -> {
+
+                    if (cancelled) return;
+
+                    try {
+                        ready.put(index,GeneratedProblem.generate(
+                            seed,index,maxDegree,difficulty,withAnswers));
+                    }
+                    catch (RuntimeException ex) {
+                    	error = ex;
+                    }
+
+                    drain();
+                });
+            }
+        }
+    }
+}
@@ -0,0 +1,925 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+public class RationalFunctionAnalysis {
+
+    // ====== public api ======
+
+
+    // a place where a sign can change: a real root or a vertical asymptote
+    public static class Breakpoint {
+
+        public final double x;       // exact when 'exact', else to ~1e-12
+        public final boolean exact;  // x is a dyadic rational hit exactly
+        public final boolean pole;   // root of D(x), not in the domain
+
+
+        Breakpoint
+        (double x,boolean exact,boolean pole) {
+
+            this.x = x;
+            this.exact = exact;
+            this.pole = pole;
+        }
+    }
+
+
+    // sorted breakpoints plus the sign (-1, 0, 1) on each gap around them
+    public static class Chart {
+
+        public final List<Breakpoint> points;
+        public final int[] signs;    // signs.length == points.size() + 1
+
+
+        Chart
+        (List<Breakpoint> points,int[] signs) {
+
+            this.points = points;
+            this.signs = signs;
+        }
+
+
+        // left / right end of gap i, infinite at the outside
+        public double gapStart(int i) {
+
+            return i == 0 ? Double.NEGATIVE_INFINITY : points.get(i - 1).x;
+        }
+
+
+        public double gapEnd(int i) {
+
+            return i == points.size() ? Double.POSITIVE_INFINITY : points.get(i).x;
+        }
+    }
+
+
+    public static class Analysis {
+
+        public final Chart slope;    // sign of f'(x)
+        public final Chart sign;     // sign of f(x)
+        public final List<Breakpoint> localMax = new ArrayList<>();
+        public final List<Breakpoint> localMin = new ArrayList<>();
+
+
+        Analysis
+        (Chart slope,Chart sign) {
+
+            this.slope = slope;
+            this.sign = sign;
+
+            // extrema: f' changes sign at a point of the domain
+            for (int i = 0; i < slope.points.size(); i++) {
+
+                Breakpoint b = slope.points.get(i);
+                if (b.pole) continue;
+
+                int left = slope.signs[i];
+                int right = slope.signs[i + 1];
+
+                if (left > 0 && right < 0) localMax.add(b);
+                if (left < 0 && right > 0) localMin.add(b);
+            }
+        }
+
+
+        public List<double[]> increasing() {
+
+            return runs(slope,1);
+        }
+
+
+        public List<double[]> decreasing() {
+
+            return runs(slope,-1);
+        }
+    }
+
+
+    public static Analysis analyze
+    (RationalFunctionEngine.RationalFunction rf) {
+
+        BigInteger[] n = fromInts(rf.numer.coeffs);
+        BigInteger[] d = fromInts(rf.denom.coeffs);
+
+        // f' = (N'D - ND') / D^2, and D^2 > 0 off the poles
+        BigInteger[] slopeNumer = sub(mul(derivative(n),d),mul(n,derivative(d)));
+
+        // f has the sign of N * D wherever it is defined
+        BigInteger[] signPoly = mul(n,d);
+
+        // integer roots we can deflate up front instead of isolating
+        TreeSet<Integer> known = new TreeSet<>(rf.numer.roots);
+        known.addAll(rf.denom.roots);
+
+        return new Analysis(chart(slopeNumer,d,known),chart(signPoly,d,known));
+    }
+
+
+    public static String buildAnalysisText
+    (RationalFunctionEngine.RationalFunction rf) {
+
+        Analysis a = analyze(rf);
+        StringBuilder out = new StringBuilder();
+
+        out.append("--- Increase / Decrease ---\n");
+        out.append("Increasing on: ").append(intervals(a.increasing())).append("\n");
+        out.append("Decreasing on: ").append(intervals(a.decreasing())).append("\n");
+        out.append("Local maxima: ").append(extrema(rf,a.localMax)).append("\n");
+        out.append("Local minima: ").append(extrema(rf,a.localMin)).append("\n");
+
+        out.append("--- Sign Chart of f(x) ---\n");
+
+        Chart c = a.sign;
+        for (int i = 0; i < c.signs.length; i++) {
+
+            out.append("(").append(fmt(c.gapStart(i))).append(", ")
+               .append(fmt(c.gapEnd(i))).append("): ")
+               .append(c.signs[i] > 0 ? "+" : c.signs[i] < 0 ? "-" : "0")
+               .append("\n");
+
+            if (i < c.points.size()) {
+
+                Breakpoint b = c.points.get(i);
+                out.append("  x = ").append(fmt(b.x))
+                   .append(b.pole ? "  (vertical asymptote)\n" : "  (zero)\n");
+            }
+        }
+
+        return out.toString();
+    }
+
+
+    // true when p.roots holds every real root of p, as it does for generated
+    // functions; a typed polynomial can also have roots like 1/2 or sqrt(2)
+    public static boolean rootsComplete
+    (RationalFunctionEngine.Poly p) {
+
+        BigInteger[] rest = fromInts(p.coeffs);
+        if (rest.length <= 1) return true;
+
+        for (int r : p.roots) {
+
+            BigInteger[] q = rest.length > 1 ? deflate(rest,r) : null;
+            if (q == null) return false;
+            rest = q;
+        }
+
+        return isolate(squareFree(rest)).isEmpty();
+    }
+
+
+    // gcd of two coefficient lists (low degree first), primitive with a
+    // positive leading coeff; a single constant when they share no factor
+    public static ArrayList<Integer> commonFactor
+    (List<Integer> a,List<Integer> b) {
+
+        BigInteger[] g = gcd(fromInts(a),fromInts(b));
+        if (g.length > 0 && g[g.length - 1].signum() < 0) g = negate(g);
+
+        ArrayList<Integer> out = new ArrayList<>();
+
+        for (BigInteger c : g) {
+
+            if (c.bitLength() > 31) throw new IllegalArgumentException("common factor too large");
+            out.add(c.intValue());
+        }
+
+        return out;
+    }
+
+
+    // every distinct real root of p, ascending, as {x, multiplicity}; the
+    // integer ones are exact, the rest refined to ~1e-12
+    public static List<double[]> realRoots
+    (RationalFunctionEngine.Poly p) {
+
+        ArrayList<double[]> out = new ArrayList<>();
+        BigInteger[] rest = fromInts(p.coeffs);
+        if (rest.length <= 1) return out;
+
+        // integer roots deflate exactly, each copy once
+        for (int r : new TreeSet<>(p.roots)) {
+
+            int mult = 0;
+            BigInteger[] q;
+
+            while (rest.length > 1 && (q = deflate(rest,r)) != null) {
+                rest = q;
+                mult++;
+            }
+
+            if (mult > 0) out.add(new double[] {r,mult});
+        }
+
+        BigInteger[] resid = squareFree(rest);
+
+        for (Dyadic[] iv : isolate(resid)) {
+
+            boolean exact = iv[0].compareTo(iv[1]) == 0;
+            double x = exact ? iv[0].toDouble() : refine(resid,iv[0],iv[1]);
+
+            // a root of multiplicity m is still a root of m - 1 nested gcd(g, g')
+            int mult = 1;
+            BigInteger[] g = gcd(rest,derivative(rest));
+
+            while (g.length > 1) {
+
+                boolean hit = exact ? signAt(g,iv[0]) == 0
+                                    : new Sturm(squareFree(g)).count(iv[0],iv[1]) > 0;
+                if (!hit) break;
+
+                mult++;
+                g = gcd(g,derivative(g));
+            }
+
+            out.add(new double[] {x,mult});
+        }
+
+        out.sort((a,b) -> Double.compare(a[0],b[0]));
+        return out;
+    }
+
+
+    // realRoots as the answer key lists them, "none" when there are none;
+    // generated polys keep the order the engine prints them in
+    public static String realRootsText
+    (RationalFunctionEngine.Poly p) {
+
+        if (rootsComplete(p)) return p.rootsWithMultiplicity();
+
+        StringBuilder sb = new StringBuilder();
+
+        for (double[] r : realRoots(p)) {
+
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(fmt(r[0]));
+            if (r[1] > 1) sb.append(" (mult ").append((int) r[1]).append(")");
+        }
+
+        return sb.length() == 0 ? "none" : sb.toString();
+    }
+
+
+    // ====== internal utilities ======
+
+
+    private static Chart chart
+    (BigInteger[] signPoly,BigInteger[] denom,TreeSet<Integer> known) {
+
+        // constant-zero f or f': only the poles break it up
+        boolean zero = signPoly.length == 0;
+        BigInteger[] rest = zero ? denom : mul(signPoly,denom);
+
+        // peel the integer roots we already know, exactly and with all
+        // their copies, so Sturm only ever sees the small leftover
+        ArrayList<Dyadic[]> roots = new ArrayList<>();
+        ArrayList<Dyadic> ints = new ArrayList<>();
+
+        for (int r : known) {
+
+            boolean hit = false;
+            BigInteger[] q;
+
+            while (rest.length > 1 && (q = deflate(rest,r)) != null) {
+                rest = q;
+                hit = true;
+            }
+
+            if (hit) ints.add(new Dyadic(BigInteger.valueOf(r),0));
+        }
+
+        BigInteger[] resid = squareFree(rest);
+        Sturm denomChain = null;
+
+        for (Dyadic[] iv : isolate(resid)) {
+
+            // keep every leftover interval clear of the integer roots
+            for (Dyadic r : ints) iv = separate(resid,iv,r);
+            roots.add(iv);
+        }
+
+        for (Dyadic r : ints) roots.add(new Dyadic[] {r,r});
+        roots.sort((a,b) -> a[0].compareTo(b[0]));
+
+        ArrayList<Breakpoint> points = new ArrayList<>();
+
+        for (Dyadic[] iv : roots) {
+
+            boolean exact = iv[0].compareTo(iv[1]) == 0;
+            boolean pole;
+
+            if (exact) {
+            	pole = signAt(denom,iv[0]) == 0;
+            }
+            else {
+
+                if (denomChain == null) denomChain = new Sturm(squareFree(denom));
+                pole = denomChain.count(iv[0],iv[1]) > 0;
+            }
+
+            double x = exact ? iv[0].toDouble() : refine(resid,iv[0],iv[1]);
+            points.add(new Breakpoint(x,exact,pole));
+        }
+
+        // test once strictly inside every gap, no root can sit there
+        int[] signs = new int[roots.size() + 1];
+
+        for (int i = 0; i < signs.length; i++) {
+
+            if (zero) continue;
+
+            Dyadic t;
+
+            if (roots.isEmpty()) {
+            	t = Dyadic.ZERO;
+            }
+            else if (i == 0) {
+            	t = roots.get(0)[0].plusInt(-1);
+            }
+            else if (i == roots.size()) {
+            	t = roots.get(i - 1)[1].plusInt(1);
+            }
+            else {
+            	t = Dyadic.mid(roots.get(i - 1)[1],roots.get(i)[0]);
+            }
+
+            signs[i] = signAt(signPoly,t);
+        }
+
+        return new Chart(points,signs);
+    }
+
+
+    // shrink a one-root interval of p until the point r is strictly outside
+    private static Dyadic[] separate
+    (BigInteger[] p,Dyadic[] iv,Dyadic r) {
+
+        Dyadic lo = iv[0];
+        Dyadic hi = iv[1];
+
+        while (lo.compareTo(hi) != 0 && lo.compareTo(r) <= 0 && r.compareTo(hi) <= 0) {
+
+            // r is not a root of p, so cutting there is safe
+            boolean inside = lo.compareTo(r) < 0 && r.compareTo(hi) < 0;
+            Dyadic m = inside ? r : Dyadic.mid(lo,hi);
+            int s = signAt(p,m);
+
+            if (s == 0) return new Dyadic[] {m,m};
+
+            if (s == signAt(p,lo)) lo = m;
+            else hi = m;
+        }
+
+        return new Dyadic[] {lo,hi};
+    }
+
+
+    // p / (x - r) when r is a root, else null
+    private static BigInteger[] deflate
+    (BigInteger[] p,int r) {
+
+        BigInteger br = BigInteger.valueOf(r);
+        BigInteger[] q = new BigInteger[p.length - 1];
+        BigInteger carry = BigInteger.ZERO;
+
+        for (int i = p.length - 1; i >= 1; i--) {
+            carry = p[i].add(carry.multiply(br));
+            q[i - 1] = carry;
+        }
+
+        return p[0].add(carry.multiply(br)).signum() == 0 ? q : null;
+    }
+
+
+    // disjoint [lo, hi] around each distinct real root of a squarefree p;
+    // lo == hi when the root was hit exactly, otherwise p(lo), p(hi) != 0
+    private static ArrayList<Dyadic[]> isolate
+    (BigInteger[] p) {
+
+        ArrayList<Dyadic[]> out = new ArrayList<>();
+        if (p.length <= 1) return out;
+
+        Sturm chain = new Sturm(p);
+
+        // every root lies inside (-B, B) by Cauchy's bound
+        BigInteger maxAbs = BigInteger.ZERO;
+        for (BigInteger c : p) maxAbs = maxAbs.max(c.abs());
+        BigInteger bound = maxAbs.divide(p[p.length - 1].abs()).add(BigInteger.TWO);
+
+        Dyadic hiB = new Dyadic(BigInteger.ONE.shiftLeft(bound.bitLength()),0);
+        Dyadic loB = hiB.negate();
+
+        // bisect (lo, hi] until each piece holds one root
+        ArrayList<Dyadic[]> stack = new ArrayList<>();
+        ArrayList<int[]> counts = new ArrayList<>();
+        stack.add(new Dyadic[] {loB,hiB});
+        counts.add(new int[] {chain.variations(loB),chain.variations(hiB)});
+
+        while (!stack.isEmpty()) {
+
+            Dyadic[] iv = stack.remove(stack.size() - 1);
+            int[] v = counts.remove(counts.size() - 1);
+            int n = v[0] - v[1];
+
+            if (n == 0) continue;
+
+            if (n == 1) {
+                out.add(tighten(p,chain,iv[0],iv[1]));
+                continue;
+            }
+
+            Dyadic mid = Dyadic.mid(iv[0],iv[1]);
+            int vm = chain.variations(mid);
+
+            // right half first so the left comes off the stack first
+            stack.add(new Dyadic[] {mid,iv[1]});
+            counts.add(new int[] {vm,v[1]});
+            stack.add(new Dyadic[] {iv[0],mid});
+            counts.add(new int[] {v[0],vm});
+        }
+
+        return out;
+    }
+
+
+    // turn (lo, hi] with one root into the closed form isolate() promises
+    private static Dyadic[] tighten
+    (BigInteger[] p,Sturm chain,Dyadic lo,Dyadic hi) {
+
+        if (signAt(p,hi) == 0) return new Dyadic[] {hi,hi};
+
+        // lo may be the exact root of the previous piece, move off it
+        while (signAt(p,lo) == 0) {
+
+            Dyadic mid = Dyadic.mid(lo,hi);
+
+            if (signAt(p,mid) == 0) return new Dyadic[] {mid,mid};
+
+            if (chain.count(lo,mid) == 1) hi = mid;
+            else lo = mid;
+        }
+
+        return new Dyadic[] {lo,hi};
+    }
+
+
+    // the exact interval has a sign change, bisect in doubles from there
+    private static double refine
+    (BigInteger[] p,Dyadic lo,Dyadic hi) {
+
+        double[] c = new double[p.length];
+        for (int i = 0; i < c.length; i++) c[i] = p[i].doubleValue();
+
+        double a = lo.toDouble();
+        double b = hi.toDouble();
+        int sa = signAt(p,lo);
+
+        for (int it = 0; it < 80 && b - a > 1e-13 * Math.max(1,Math.abs(a)); it++) {
+
+            double m = 0.5 * (a + b);
+            double v = 0;
+            for (int i = c.length - 1; i >= 0; i--) v = v * m + c[i];
+
+            if (v == 0) return m;
+            if ((v > 0) == (sa > 0)) a = m;
+            else b = m;
+        }
+
+        return 0.5 * (a + b);
+    }
+
+
+    private static List<double[]> runs
+    (Chart c,int want) {
+
+        ArrayList<double[]> out = new ArrayList<>();
+
+        for (int i = 0; i < c.signs.length; i++) {
+
+            if (c.signs[i] != want) continue;
+
+            // join across a flat point where f keeps going the same way
+            boolean joins = !out.isEmpty() && i > 0
+                && c.signs[i - 1] == want && !c.points.get(i - 1).pole;
+
+            if (joins) out.get(out.size() - 1)[1] = c.gapEnd(i);
+            else out.add(new double[] {c.gapStart(i),c.gapEnd(i)});
+        }
+
+        return out;
+    }
+
+
+    private static String intervals
+    (List<double[]> list) {
+
+        if (list.isEmpty()) return "none";
+
+        StringBuilder sb = new StringBuilder();
+
+        for (double[] iv : list) {
+
+            if (sb.length() > 0) sb.append(" U ");
+            sb.append("(").append(fmt(iv[0])).append(", ").append(fmt(iv[1])).append(")");
+        }
+
+        return sb.toString();
+    }
+
+
+    private static String extrema
+    (RationalFunctionEngine.RationalFunction rf,List<Breakpoint> list) {
+
+        if (list.isEmpty()) return "none";
+
+        StringBuilder sb = new StringBuilder();
+
+        for (Breakpoint b : list) {
+
+            if (sb.length() > 0) sb.append(", ");
+            sb.append("(").append(fmt(b.x)).append(", ").append(fmt(rf.valueAt(b.x))).append(")");
+        }
+
+        return sb.toString();
+    }
+
+
+    private static String fmt
+    (double v) {
+
+        if (v == Double.NEGATIVE_INFINITY) return "-inf";
+        if (v == Double.POSITIVE_INFINITY) return "inf";
+        if (v == Math.rint(v) && Math.abs(v) < 1e9) return Long.toString((long) v);
+
+        return String.format("%.4f",v);
+    }
+
+
+    // ---- exact polynomial arithmetic, coeffs low degree first ----
+
+
+    private static class Sturm {
+
+        final ArrayList<BigInteger[]> seq = new ArrayList<>();
+        final ArrayList<double[]> approx = new ArrayList<>();
+
+
+        Sturm
+        (BigInteger[] p) {
+
+            // p, p', then negated pseudo-remainders scaled by positives only
+            seq.add(p);
+
+            if (p.length > 1) {
+
+                BigInteger[] a = p;
+                BigInteger[] b = primitive(derivative(p));
+
+                while (b.length > 0) {
+
+                    seq.add(b);
+                    BigInteger[] r = negate(primitive(pseudoRem(a,b)));
+                    a = b;
+                    b = r;
+                }
+            }
+
+            for (BigInteger[] q : seq) approx.add(toDoubles(q));
+        }
+
+
+        int variations
+        (Dyadic x) {
+
+            int changes = 0;
+            int last = 0;
+
+            for (int i = 0; i < seq.size(); i++) {
+
+                int s = signAt(seq.get(i),approx.get(i),x);
+                if (s == 0) continue;
+                if (last != 0 && s != last) changes++;
+                last = s;
+            }
+
+            return changes;
+        }
+
+
+        // distinct roots in (lo, hi]
+        int count
+        (Dyadic lo,Dyadic hi) {
+
+            return variations(lo) - variations(hi);
+        }
+    }
+
+
+    // value num / 2^exp, enough to bisect without rounding
+    private static class Dyadic implements Comparable<Dyadic> {
+
+        static final Dyadic ZERO = new Dyadic(BigInteger.ZERO,0);
+
+        final BigInteger num;
+        final int exp;
+
+
+        Dyadic
+        (BigInteger num,int exp) {
+
+            this.num = num;
+            this.exp = exp;
+        }
+
+
+        static Dyadic mid
+        (Dyadic a,Dyadic b) {
+
+            int e = Math.max(a.exp,b.exp);
+            BigInteger sum = a.num.shiftLeft(e - a.exp).add(b.num.shiftLeft(e - b.exp));
+            e++;
+
+            // keep it reduced so the doubles fast path stays exact
+            int tz = sum.signum() == 0 ? e : Math.min(e,sum.getLowestSetBit());
+
+            return new Dyadic(sum.shiftRight(tz),e - tz);
+        }
+
+
+        Dyadic plusInt
+        (int k) {
+
+            return new Dyadic(num.add(BigInteger.valueOf(k).shiftLeft(exp)),exp);
+        }
+
+
+        Dyadic negate() {
+
+            return new Dyadic(num.negate(),exp);
+        }
+
+
+        double toDouble() {
+
+            return num.doubleValue() / Math.pow(2,exp);
+        }
+
+
+        @Override
+        public int compareTo(Dyadic o) {
+
+            int e = Math.max(exp,o.exp);
+            return num.shiftLeft(e - exp).compareTo(o.num.shiftLeft(e - o.exp));
+        }
+    }
+
+
+    private static int signAt
+    (BigInteger[] p,Dyadic x) {
+
+        return signAt(p,toDoubles(p),x);
+    }
+
+
+    private static int signAt
+    (BigInteger[] p,double[] pd,Dyadic x) {
+
+        if (p.length == 0) return 0;
+
+        // doubles first: Horner's error is below (2n+2) u sum |c_i||x|^i,
+        // counting the rounding of each coeff, so only near-zeros go exact
+        if (pd != null && x.num.bitLength() <= 53 && x.exp < 1000) {
+
+            double xd = x.toDouble();
+            double ax = Math.abs(xd);
+            double v = 0;
+            double mag = 0;
+
+            for (int i = pd.length - 1; i >= 0; i--) {
+                v = v * xd + pd[i];
+                mag = mag * ax + Math.abs(pd[i]);
+            }
+
+            double err = (4.0 * pd.length + 4) * 0x1p-53 * mag;
+
+            if (!Double.isInfinite(mag) && Math.abs(v) > err) return v > 0 ? 1 : -1;
+        }
+
+        // p(num / 2^e) * 2^(e*deg), Horner on the homogenised form
+        int deg = p.length - 1;
+        BigInteger acc = p[deg];
+
+        for (int i = deg - 1; i >= 0; i--) {
+            acc = acc.multiply(x.num).add(p[i].shiftLeft(x.exp * (deg - i)));
+        }
+
+        return acc.signum();
+    }
+
+
+    private static BigInteger[] squareFree
+    (BigInteger[] p) {
+
+        if (p.length <= 1) return p;
+
+        BigInteger[] g = gcd(p,derivative(p));
+        return g.length <= 1 ? primitive(p) : exactDiv(primitive(p),g);
+    }
+
+
+    private static BigInteger[] gcd
+    (BigInteger[] a,BigInteger[] b) {
+
+        a = primitive(a);
+        b = primitive(b);
+
+        // primitive remainder sequence keeps the numbers small
+        while (b.length > 0) {
+
+            BigInteger[] r = primitive(pseudoRem(a,b));
+            a = b;
+            b = r;
+        }
+
+        return a;
+    }
+
+
+    private static BigInteger[] pseudoRem
+    (BigInteger[] a,BigInteger[] b) {
+
+        // |lc(b)| * r - sgn(lc(b)) * lc(r) x^k b, multiplier stays positive
+        BigInteger lb = b[b.length - 1];
+        BigInteger scale = lb.abs();
+        BigInteger[] r = a.clone();
+
+        while (r.length >= b.length) {
+
+            BigInteger lr = r[r.length - 1];
+            int shift = r.length - b.length;
+            BigInteger[] next = new BigInteger[r.length];
+
+            for (int i = 0; i < r.length; i++) {
+            	next[i] = r[i].multiply(scale);
+            }
+
+            for (int i = 0; i < b.length; i++) {
+
+                BigInteger t = b[i].multiply(lr);
+                next[i + shift] = lb.signum() > 0 ? next[i + shift].subtract(t)
+                                                  : next[i + shift].add(t);
+            }
+
+            r = trim(next);
+        }
+
+        return r;
+    }
+
+
+    private static BigInteger[] exactDiv
+    (BigInteger[] a,BigInteger[] b) {
+
+        // long division, every step divides exactly by Gauss's lemma
+        BigInteger[] r = a.clone();
+        BigInteger[] q = new BigInteger[a.length - b.length + 1];
+        BigInteger lb = b[b.length - 1];
+
+        for (int k = q.length - 1; k >= 0; k--) {
+
+            BigInteger c = r[k + b.length - 1].divide(lb);
+            q[k] = c;
+
+            for (int i = 0; i < b.length; i++) {
+            	r[k + i] = r[k + i].subtract(c.multiply(b[i]));
+            }
+        }
+
+        return primitive(q);
+    }
+
+
+    private static BigInteger[] primitive
+    (BigInteger[] p) {
+
+        p = trim(p);
+        if (p.length == 0) return p;
+
+        // small coeffs first, most contents collapse to 1 right away
+        BigInteger g = p[0].signum() != 0 ? p[0].abs() : p[p.length - 1].abs();
+
+        for (int i = 0; i < p.length && !g.equals(BigInteger.ONE); i++) {
+        	g = g.gcd(p[i]);
+        }
+
+        if (g.equals(BigInteger.ONE)) return p;
+
+        BigInteger[] out = new BigInteger[p.length];
+        for (int i = 0; i < p.length; i++) out[i] = p[i].divide(g);
+
+        return out;
+    }
+
+
+    private static BigInteger[] derivative
+    (BigInteger[] p) {
+
+        if (p.length <= 1) return new BigInteger[0];
+
+        BigInteger[] out = new BigInteger[p.length - 1];
+        for (int i = 1; i < p.length; i++) {
+        	out[i - 1] = p[i].multiply(BigInteger.valueOf(i));
+        }
+
+        return out;
+    }
+
+
+    private static BigInteger[] mul
+    (BigInteger[] a,BigInteger[] b) {
+
+        if (a.length == 0 || b.length == 0) return new BigInteger[0];
+
+        BigInteger[] out = new BigInteger[a.length + b.length - 1];
+        for (int i = 0; i < out.length; i++) out[i] = BigInteger.ZERO;
+
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                out[i + j] = out[i + j].add(a[i].multiply(b[j]));
+            }
+        }
+
+        return trim(out);
+    }
+
+
+    private static BigInteger[] sub
+    (BigInteger[] a,BigInteger[] b) {
+
+        BigInteger[] out = new BigInteger[Math.max(a.length,b.length)];
+
+        for (int i = 0; i < out.length; i++) {
+
+            BigInteger x = i < a.length ? a[i] : BigInteger.ZERO;
+            BigInteger y = i < b.length ? b[i] : BigInteger.ZERO;
+            out[i] = x.subtract(y);
+        }
+
+        return trim(out);
+    }
+
+
+    private static BigInteger[] negate
+    (BigInteger[] p) {
+
+        BigInteger[] out = new BigInteger[p.length];
+        for (int i = 0; i < p.length; i++) out[i] = p[i].negate();
+
+        return out;
+    }
+
+
+    private static BigInteger[] trim
+    (BigInteger[] p) {
+
+        int k = p.length;
+        while (k > 0 && p[k - 1].signum() == 0) k--;
+
+        if (k == p.length) return p;
+
+        BigInteger[] out = new BigInteger[k];
+        System.arraycopy(p,0,out,0,k);
+
+        return out;
+    }
+
+
+    private static double[] toDoubles
+    (BigInteger[] p) {
+
+        double[] out = new double[p.length];
+
+        for (int i = 0; i < p.length; i++) {
+
+            out[i] = p[i].doubleValue();
+            if (Double.isInfinite(out[i])) return null;
+        }
+
+        return out;
+    }
+
+
+    private static BigInteger[] fromInts
+    (List<Integer> coeffs) {
+
+        BigInteger[] out = new BigInteger[coeffs.size()];
+
+        for (int i = 0; i < out.length; i++) {
+        	out[i] = BigInteger.valueOf(coeffs.get(i));
+        }
+
+        return trim(out);
+    }
+}
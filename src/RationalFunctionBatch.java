@@ -0,0 +1,121 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+
+public class RationalFunctionBatch {
+
+    // headless entry point, touches nothing outside java.base:
+    //   java RationalFunctionBatch <maxDegree> <EASY|MEDIUM|HARD> <seed> <count> [--answers]
+    public static void main(String[] args) throws IOException {
+
+        if (args.length < 4) {
+            System.err.println("usage: RationalFunctionBatch <maxDegree> <EASY|MEDIUM|HARD> "
+                + "<seed> <count> [--answers]");
+            System.exit(2);
+        }
+
+        int maxDegree = Integer.parseInt(args[0]);
+        String difficulty = args[1].toUpperCase();
+        long seed = Long.parseLong(args[2]);
+        long count = Long.parseLong(args[3]);
+        boolean answers = args.length > 4 && args[4].equals("--answers");
+
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+            new OutputStreamWriter(System.out,StandardCharsets.UTF_8),1 << 16));
+
+        // problems are made in parallel but only as fast as we write them
+        CountDownLatch finished = new CountDownLatch(1);
+        Throwable[] failure = new Throwable[1];
+
+        new ProblemPublisher(maxDegree,difficulty,seed,count,answers)
+            .subscribe(new Flow.Subscriber<GeneratedProblem>() {
+
+                private Flow.Subscription sub;
+                private int sinceRequest = 0;
+
+
+                @Override
+                public void onSubscribe(Flow.Subscription s) {
+
+                    sub = s;
+                    s.request(BATCH);
+                }
+
+
+                @Override
+                public void onNext(GeneratedProblem p) {
+
+                    out.println("# problem " + p.index + " (seed " + p.seed + ")");
+                    out.print(RationalFunctionEngine.buildProblemText(p.function));
+
+                    if (p.answerKey != null) {
+                        out.println();
+                        out.print(p.answerKey);
+                    }
+
+                    out.println();
+
+                    if (p.index == 0) {
+                    	out.flush();
+                    	reportStartup();
+                    }
+
+                    // top the demand back up once half of it is used
+                    if (++sinceRequest == BATCH / 2) {
+                    	sinceRequest = 0;
+                    	sub.request(BATCH / 2);
+                    }
+                }
+
+
+                @Override
+                public void onError(Throwable t) {
+
+                    failure[0] = t;
+                    finished.countDown();
+                }
+
+
+                @Override
+                public void onComplete() {
+
+                    finished.countDown();
+                }
+            });
+
+        try {
+            finished.await();
+        }
+        catch (InterruptedException ex) {
+        	Thread.currentThread().interrupt();
+        }
+
+        out.flush();
+
+        if (failure[0] != null) {
+        	System.err.println("generation failed: " + failure[0].getMessage());
+        	System.exit(1);
+        }
+    }
+
+
+    // problems requested ahead of the writer
+    private static final int BATCH = 64;
+
+
+    // launch to first problem on stderr, so stdout stays clean; the
+    // launcher passes -Drfg.launchMillis=$(date +%s%3N) since java.base
+    // has no accurate JVM start time of its own
+    private static void reportStartup() {
+
+        String launch = System.getProperty("rfg.launchMillis");
+        if (launch == null) return;
+
+        long ms = System.currentTimeMillis() - Long.parseLong(launch.trim());
+        System.err.println("first problem after " + ms + " ms");
+    }
+}
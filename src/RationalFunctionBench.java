@@ -0,0 +1,343 @@
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+public class RationalFunctionBench {
+
+    // rough timings, run with: java RationalFunctionBench [parse|grade|analyze|index|generate] [rounds]
+    public static void main(String[] args) {
+
+        String mode = args.length > 0 ? args[0] : "parse";
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        switch (mode) {
+            case "parse": benchParse(rounds); break;
+            case "grade": benchGrade(rounds); break;
+            case "analyze": benchAnalyze(rounds); break;
+            case "index": benchIndex(rounds); break;
+            case "generate": benchGenerate(rounds); break;
+            default:
+                System.err.println("unknown mode " + mode + ", use parse, grade, analyze, index or generate");
+                System.exit(2);
+        }
+    }
+
+
+    private static void benchParse
+    (int rounds) {
+
+        String[][] typed = {
+            {"2(x-3)^2(x+1)", "x^2 - 4"},
+            {"3x^3 - 4x + 1", "(x+5)(x-2)"},
+            {"-(x+1)^3", "2x^2 + 3x - 5"},
+            {"x^4 - 10x^2 + 9", "3(x-6)(x+6)"},
+        };
+
+        // build one batch of each kind to graph
+        ArrayList<RationalFunctionEngine.RationalFunction> generated = new ArrayList<>();
+        ArrayList<RationalFunctionEngine.RationalFunction> parsed = new ArrayList<>();
+        Random rng = new Random(1);
+
+        while (generated.size() < typed.length) {
+
+            RationalFunctionEngine.RationalFunction rf =
+                RationalFunctionEngine.generateRational(4,"MEDIUM",rng);
+            if (rf != null) generated.add(rf);
+        }
+
+        for (String[] t : typed) {
+        	parsed.add(RationalFunctionParser.parseRational(t[0],t[1]));
+        }
+
+        // warm up, then measure
+        for (int pass = 0; pass < 2; pass++) {
+
+            boolean report = pass == 1;
+            int n = report ? rounds : rounds / 10;
+
+            long sink = 0;
+            long t0 = System.nanoTime();
+
+            for (int i = 0; i < n; i++) {
+                rng = new Random(i);
+                RationalFunctionEngine.RationalFunction rf =
+                    RationalFunctionEngine.generateRational(4,"MEDIUM",rng);
+                if (rf != null) sink += rf.numer.leading;
+            }
+
+            long t1 = System.nanoTime();
+
+            for (int i = 0; i < n; i++) {
+                String[] t = typed[i % typed.length];
+                sink += RationalFunctionParser.parseRational(t[0],t[1]).numer.leading;
+            }
+
+            long t2 = System.nanoTime();
+            double genGraph = graphCost(generated,n / 100 + 1);
+            double parsedGraph = graphCost(parsed,n / 100 + 1);
+
+            if (report) {
+
+                System.out.printf("generate:        %8.1f ns/problem%n",(t1 - t0) / (double) n);
+                System.out.printf("parse:           %8.1f ns/problem%n",(t2 - t1) / (double) n);
+                System.out.printf("graph generated: %8.1f ns/sample%n",genGraph);
+                System.out.printf("graph parsed:    %8.1f ns/sample%n",parsedGraph);
+                System.out.println("(sink " + sink + ")");
+            }
+        }
+    }
+
+
+    // one school's worth of responses against a shared problem set
+    private static void benchGrade
+    (int responses) {
+
+        checkWrittenAnswers();
+
+        ArrayList<RationalFunctionEngine.RationalFunction> problems = new ArrayList<>();
+        Random rng = new Random(7);
+
+        while (problems.size() < 500) {
+
+            RationalFunctionEngine.RationalFunction rf =
+                RationalFunctionEngine.generateRational(4,"MEDIUM",rng);
+            if (rf != null) problems.add(rf);
+        }
+
+        ArrayList<AnswerGrader.StudentResponse> batch = new ArrayList<>();
+
+        for (int i = 0; i < responses; i++) {
+
+            int p = rng.nextInt(problems.size());
+            AnswerGrader.StudentResponse ok =
+                AnswerGrader.perfectResponse("s" + i,p,problems.get(p));
+
+            // every third student misses the y-intercept
+            if (i % 3 == 0) {
+                ok = new AnswerGrader.StudentResponse(
+                    ok.studentId,p,ok.factoredNumer,ok.factoredDenom,ok.xIntercepts,
+                    ok.yIntercept == null ? 1.0 : ok.yIntercept + 1,ok.domain,
+                    ok.verticalAsymptotes,ok.obliqueSlope,ok.obliqueIntercept);
+            }
+
+            batch.add(ok);
+        }
+
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        // warm up once, report the second pass
+        AnswerGrader.gradeAll(problems,batch.subList(0,Math.min(batch.size(),10_000)),threads);
+        System.out.print(AnswerGrader.gradeAll(problems,batch,threads).summary());
+    }
+
+
+    // answers as students type them, not toFactorString's "1(x-5)"
+    private static void checkWrittenAnswers() {
+
+        String[][] cases = {
+            // N(x), D(x), student's N(x), student's D(x), credited as factored
+            {"2(x-3)(x+1)", "x-5", "2(x-3)(x+1)", "x-5", "yes"},
+            {"2(x-3)(x+1)", "x-5", "2(x+1)(x-3)", "(x-5)", "yes"},
+            {"2(x-3)(x+1)", "x-5", "(2x-6)(x+1)", "(x-5)", "no"},
+            {"2(x-3)(x+1)", "x-5", "2x^2 - 4x - 6", "x - 5", "no"},
+            {"2(x-3)(x+1)", "x-5", "2(x-3)(x+1)+0", "x-5", "no"},
+            {"(x-2)(x-3)", "x+4", "(x^2-5x+6)", "x+4", "no"},
+            {"(x-2)(x-3)", "x+4", "((x-2)(x-3))", "x+4", "yes"},
+            {"-(x-2)(x-3)", "x+1", "-(x-2)(x-3)", "x+1", "yes"},
+            {"x^2(x-1)", "x^2+1", "x^2(x-1)", "x^2+1", "yes"},
+            {"3(x-1)", "x^2-4", "3(x-1)", "(x-2)(x+2)", "yes"},
+            {"3(x-1)", "x^2-4", "3x-3", "(x-2)(x+2)", "no"},
+            {"3(x-1)", "x^2-4", "3(x-1)", "x^2-4", "no"},
+        };
+
+        ArrayList<RationalFunctionEngine.RationalFunction> problems = new ArrayList<>();
+        ArrayList<AnswerGrader.StudentResponse> answers = new ArrayList<>();
+        int wrong = 0;
+
+        for (String[] c : cases) {
+
+            RationalFunctionEngine.RationalFunction rf = RationalFunctionParser.parseRational(c[0],c[1]);
+            AnswerGrader.StudentResponse r = new AnswerGrader.StudentResponse(
+                "written",problems.size(),c[2],c[3],null,null,null,null,null,null);
+
+            boolean credited = AnswerGrader.grade(rf,r).contains(AnswerGrader.Part.FACTORED);
+
+            if (credited != c[4].equals("yes")) {
+            	System.out.println("FACTORED wrong for " + c[2] + " / " + c[3] + ": credited " + credited);
+            	wrong++;
+            }
+
+            problems.add(rf);
+            answers.add(r);
+        }
+
+        // one bad response must not cost the others their grades
+        answers.add(new AnswerGrader.StudentResponse(
+            "stray",problems.size(),"x","x",null,null,null,null,null,null));
+
+        AnswerGrader.BatchReport report = AnswerGrader.gradeAll(problems,answers,2);
+        int errors = 0;
+
+        for (AnswerGrader.ItemResult r : report.results) {
+            if (r.error != null) errors++;
+        }
+
+        if (errors != 1) {
+        	System.out.println("expected 1 ungradable response, got " + errors);
+        	wrong++;
+        }
+
+        System.out.println("written answers: " + (cases.length + 1 - wrong) + "/" + (cases.length + 1) + " as expected");
+    }
+
+
+    // exact slope and sign charts, as bulk generation would run them
+    private static void benchAnalyze
+    (int rounds) {
+
+        String[] levels = {"EASY","MEDIUM","HARD"};
+        ArrayList<RationalFunctionEngine.RationalFunction> fns = new ArrayList<>();
+        Random rng = new Random(11);
+
+        while (fns.size() < 2_000) {
+
+            int k = fns.size();
+            RationalFunctionEngine.RationalFunction rf =
+                RationalFunctionEngine.generateRational(2 + k % 5,levels[k % 3],rng);
+            if (rf != null) fns.add(rf);
+        }
+
+        for (int pass = 0; pass < 2; pass++) {
+
+            int n = pass == 1 ? rounds : rounds / 10;
+            long sink = 0;
+            long t0 = System.nanoTime();
+
+            for (int i = 0; i < n; i++) {
+                sink += RationalFunctionAnalysis.analyze(fns.get(i % fns.size())).slope.points.size();
+            }
+
+            long t1 = System.nanoTime();
+
+            if (pass == 1) {
+                System.out.printf("analyze: %8.2f us/function (degrees 2-6)%n",(t1 - t0) / 1e3 / n);
+                System.out.println("(sink " + sink + ")");
+            }
+        }
+    }
+
+
+    // heap per problem as objects vs columns, and one feature query
+    private static void benchIndex
+    (int count) {
+
+        ArrayList<RationalFunctionEngine.RationalFunction> objects = new ArrayList<>(count);
+        long before = usedHeap();
+
+        for (int i = 0; i < count; i++) {
+        	objects.add(GeneratedProblem.generate(3,i,6,i % 2 == 0 ? "MEDIUM" : "HARD",false).function);
+        }
+
+        long objectBytes = usedHeap() - before;
+
+        ProblemIndex index = new ProblemIndex(6);
+        for (RationalFunctionEngine.RationalFunction rf : objects) index.add(rf);
+
+        objects = null;
+        System.out.printf("object graph: %6.1f bytes/problem%n",objectBytes / (double) count);
+        System.out.printf("columnar:     %6.1f bytes/problem%n",index.bytesUsed() / (double) count);
+
+        // degree-3 numerators with a double root, none at 0, slant asymptote
+        int hits = 0;
+        long t0 = System.nanoTime();
+        int runs = 50;
+
+        for (int i = 0; i < runs; i++) {
+            hits = index.query().numerDegree(3).numerRepeatedRoot(true)
+                        .numerRoot(0,false).slantAsymptote(true).count();
+        }
+
+        long t1 = System.nanoTime();
+        System.out.printf("query: %d of %d rows in %.2f ms%n",hits,count,(t1 - t0) / 1e6 / runs);
+    }
+
+
+    // a fresh Random per problem vs one context and generator reused
+    private static void benchGenerate
+    (int rounds) {
+
+        GeneratorContext ctx = new GeneratorContext(6);
+        Random reused = new Random();
+        SplittableRandom split = new SplittableRandom(5);
+
+        for (int pass = 0; pass < 2; pass++) {
+
+            int n = pass == 1 ? rounds : rounds / 10;
+            long sink = 0;
+            long t0 = System.nanoTime();
+
+            for (int i = 0; i < n; i++) {
+                RationalFunctionEngine.RationalFunction rf =
+                    RationalFunctionEngine.generateRational(2 + i % 5,"MEDIUM",new Random(i));
+                if (rf != null) sink += rf.numer.leading;
+            }
+
+            long t1 = System.nanoTime();
+
+            for (int i = 0; i < n; i++) {
+                reused.setSeed(i);   // same problems as new Random(i)
+                if (ctx.next(2 + i % 5,"MEDIUM",reused)) sink += ctx.numerCoeff(ctx.numerDegree());
+            }
+
+            long t2 = System.nanoTime();
+
+            for (int i = 0; i < n; i++) {
+                if (ctx.next(2 + i % 5,"MEDIUM",split)) sink += ctx.numerCoeff(ctx.numerDegree());
+            }
+
+            long t3 = System.nanoTime();
+
+            if (pass == 1) {
+
+                System.out.printf("generateRational, new Random:  %7.1f ns/problem%n",(t1 - t0) / (double) n);
+                System.out.printf("context, reseeded Random:      %7.1f ns/problem%n",(t2 - t1) / (double) n);
+                System.out.printf("context, SplittableRandom:     %7.1f ns/problem%n",(t3 - t2) / (double) n);
+                System.out.println("(sink " + sink + ")");
+            }
+        }
+    }
+
+
+    private static long usedHeap() {
+
+        Runtime rt = Runtime.getRuntime();
+
+        for (int i = 0; i < 3; i++) System.gc();
+
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+
+    // cost of one valueAt call, sampled like GraphPanel does
+    private static double graphCost
+    (ArrayList<RationalFunctionEngine.RationalFunction> fns,int frames) {
+
+        int width = 500;
+        double sink = 0;
+        long t0 = System.nanoTime();
+
+        for (int f = 0; f < frames; f++) {
+            for (RationalFunctionEngine.RationalFunction rf : fns) {
+                for (int px = 0; px < width; px++) {
+                    double y = rf.valueAt(-10 + 20.0 * px / width);
+                    if (!Double.isNaN(y)) sink += y;
+                }
+            }
+        }
+
+        long t1 = System.nanoTime();
+        if (sink == 42) System.out.println();
+
+        return (t1 - t0) / (double) (frames * fns.size() * width);
+    }
+}
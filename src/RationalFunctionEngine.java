@@ -1,6 +1,4 @@
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashSet;
 import java.util.Random;
 
 public class RationalFunctionEngine {
@@ -79,20 +77,54 @@ public class RationalFunctionEngine {
         
         public String toFactorString() {
         	
-            if (roots.isEmpty()) return Integer.toString(leading);
+            if (roots.isEmpty() && degree() <= 0) return Integer.toString(leading);
+            
+            // whatever the integer roots do not cover (typed input can
+            // have irreducible factors); just [leading] for generated polys
+            ArrayList<Integer> rest = new ArrayList<>(coeffs);
+            for (int r : roots) {
+            	rest = divideByRoot(rest,r);
+            }
+            
+            // pull content out of the leftover so it reads a(x-r)...(q(x))
+            int g = gcdList(rest);
+            if (rest.get(rest.size() - 1) < 0) g = -g;
             
             StringBuilder sb = new StringBuilder();
-            sb.append(leading);
+            sb.append(g);
+            
+            // roots at 0 are the factor x^k, written once where the first one is
+            int zeros = 0;
+            for (int r : roots) {
+                if (r == 0) zeros++;
+            }
             
             // build like a(x-r1)(x-r2)...
             for (int r : roots) {
             	
+                if (r == 0) {
+                	if (zeros > 0) sb.append(zeros > 1 ? "x^" + zeros : "x");
+                	zeros = 0;
+                	continue;
+                }
+                
                 sb.append("(x");
-                if (r >= 0) sb.append("-").append(r);
+                if (r > 0) sb.append("-").append(r);
                 else sb.append("+").append(-r);
                 sb.append(")");
             }
             
+            if (rest.size() > 1) {
+            	
+            	for (int i = 0; i < rest.size(); i++) {
+            		rest.set(i,rest.get(i) / g);
+            	}
+            	
+            	sb.append("(")
+            	  .append(new Poly(rest,new ArrayList<>()).toStandardString())
+            	  .append(")");
+            }
+            
             return sb.toString();
         }
         
@@ -134,143 +166,86 @@ public class RationalFunctionEngine {
         public final Poly numer; // numerator
         public final Poly denom; // denominator
         
+        // flat copies of the coeffs so valueAt never unboxes
+        private final double[] numerFlat;
+        private final double[] denomFlat;
+        
         
         public RationalFunction
         (Poly n,Poly d) {
         	
             this.numer = n;
             this.denom = d;
+            this.numerFlat = toFlat(n.coeffs);
+            this.denomFlat = toFlat(d.coeffs);
         }
         
         
         public double valueAt(double x) {
         	
-            double num = 0;
-            double den = 0;
-            double xp = 1.0;
-            
-            // evaluate numerator by powers of x
-            for (int c : numer.coeffs) {
-                num += c * xp;
-                xp *= x;
-            }
-            
-            xp = 1.0;
-            // evaluate denominator by powers of x
-            for (int c : denom.coeffs) {
-                den += c * xp;
-                xp *= x;
-            }
-            
-            return num / den;
-        }
-    }
-    
-    
-    public static RationalFunction generateRational
-    (int maxDegree,String difficulty,Random rng) {
-    	
-        // pick degrees for n and d
-        int degD = randInt(rng,1,maxDegree - 1);
-        int degN = degD + 1;
-        
-        // avoid both at maxDegree
-        if (degN == maxDegree && degD == maxDegree) {
-            if (rng.nextBoolean()) degN--;
-            else degD--;
+            return horner(numerFlat,x) / horner(denomFlat,x);
         }
         
-        int rootAbs = 6;                 // roots in [-6,6]
-        boolean allowMult = !difficulty.equals("EASY");
-        
-        // random roots for numerator and denominator
-        ArrayList<Integer> rootsN = randomRootsWithMultiplicity
-        (degN,rootAbs,allowMult,rng);
-        
-        ArrayList<Integer> rootsD = randomRootsWithMultiplicity
-        (degD,rootAbs,allowMult,rng);
         
-        // use set for quick check of shared roots
-        HashSet<Integer> numerRootSet = new HashSet<>(rootsN);
-        
-        // try to avoid shared roots between n and d
-        for (int i = 0; i < rootsD.size(); i++) {
+        private static double horner
+        (double[] c,double x) {
         	
-            int guard = 0;
-            int current = rootsD.get(i);
+            double acc = 0;
             
-            while (numerRootSet.contains(current) && guard < 20) {
-                current = randomNonZeroDifferent
-                (current,rootAbs,numerRootSet,rng);
-                guard++;
+            // high degree first: ((a_n x + a_n-1) x + ...) + a_0
+            for (int i = c.length - 1; i >= 0; i--) {
+                acc = acc * x + c[i];
             }
             
-            rootsD.set(i,current);
-        }
-        
-        // final check for shared roots (if still same, give up)
-        for (int r : rootsD) {
-            if (numerRootSet.contains(r)) return null;
+            return acc;
         }
         
-        // choose leading coeffs
-        int leadN;
-        int leadD;
         
-        if ("HARD".equals(difficulty)) {
-        	
-        	// hard mode: force non ±1 leading coeffs
-        	leadN = pickNonUnitLeading(rng);
-        	leadD = pickNonUnitLeading(rng);
-        }
-        else {
+        private static double[] toFlat
+        (ArrayList<Integer> coeffs) {
         	
-        	// easy/medium: allow ±1, ±2, ±3 but not 0
-            leadN = randInt(rng,-3,3);
-            leadD = randInt(rng,-3,3);
+            double[] out = new double[coeffs.size()];
             
-            if (leadN == 0) leadN = 1;
-            if (leadD == 0) leadD = 1;
-        }
-        
-        // expand roots to coeffs
-        ArrayList<Integer> coeffN = expandFromRoots(rootsN,leadN);
-        ArrayList<Integer> coeffD = expandFromRoots(rootsD,leadD);
-        
-        // simplify by gcd if possible
-        int gN = gcdList(coeffN);
-        int gD = gcdList(coeffD);
-        
-        // only divide if it does not break hard-mode leading coeff
-        if (gN > 1) {
-        	
-        	int newLeadN = coeffN.get(coeffN.size() - 1) / gN;
-        	
-        	if (!("HARD".equals(difficulty) && Math.abs(newLeadN) == 1)) {
-                for (int i = 0; i < coeffN.size(); i++) {
-                    coeffN.set(i,coeffN.get(i) / gN);
-                }
-        	}
-        }
-        
-        if (gD > 1) {
-        	
-        	int newLeadD = coeffD.get(coeffD.size() - 1) / gD;
-        	
-        	if (!("HARD".equals(difficulty) && Math.abs(newLeadD) == 1)) {
-                for (int i = 0; i < coeffD.size(); i++) {
-                    coeffD.set(i,coeffD.get(i) / gD);
-                }
-        	}
+            for (int i = 0; i < out.length; i++) {
+            	out[i] = coeffs.get(i);
+            }
+            
+            return out;
         }
-        
-        Poly N = new Poly(coeffN,rootsN);
-        Poly D = new Poly(coeffD,rootsD);
-        
-        // need at least degree 1 in denom
-        if (D.degree() < 1) return null;
-        
-        return new RationalFunction(N,D);
+    }
+    
+    
+    public static RationalFunction generateRational
+    (int maxDegree,String difficulty,Random rng) {
+    	
+        // null when n and d could not be kept free of shared roots
+        return new GeneratorContext(maxDegree).generate(maxDegree,difficulty,rng);
+    }
+    
+    
+    // generateRational gives up on shared roots, so callers retry
+    public static final int MAX_ATTEMPTS = 200;
+    
+    
+    public static RationalFunction generateWithRetry
+    (int maxDegree,String difficulty,Random rng) {
+    	
+        // one context for all attempts
+        return new GeneratorContext(maxDegree).generateWithRetry(maxDegree,difficulty,rng);
+    }
+    
+    
+    public static int problemSeed
+    (long seed,long index) {
+    	
+        // splitmix64 finalizer, neighbouring seeds give unrelated problems;
+        // the result is a plain int seed, typeable back into the frame
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        
+        return (int) z;
     }
     
     
@@ -304,15 +279,16 @@ public class RationalFunctionEngine {
         out.append("N(x) factored: ").append(rf.numer.toFactorString()).append("\n");
         out.append("D(x) factored: ").append(rf.denom.toFactorString()).append("\n");
         
-        // x intercepts from numerator roots
+        // x intercepts from numerator roots, typed input can have non-integer ones
         out.append("x-intercepts: ")
-           .append(rf.numer.rootsWithMultiplicity()).append("\n");
+           .append(RationalFunctionAnalysis.realRootsText(rf.numer)).append("\n");
         
         // y intercept at x = 0 if denom not 0
         if (!rf.denom.coeffs.isEmpty() && rf.denom.coeffs.get(0) != 0) {
         	
+            // + 0.0 turns -0.0 (N(0) = 0 over a negative D(0)) into 0.0
             double yint = (double) rf.numer.coeffs.get(0) 
-                        / rf.denom.coeffs.get(0);
+                        / rf.denom.coeffs.get(0) + 0.0;
             
             out.append("y-intercept: (0, ").append(yint).append(")\n");
         }
@@ -320,23 +296,64 @@ public class RationalFunctionEngine {
             out.append("y-intercept: undefined (denominator zero at x = 0)\n");
         }
         
-        // vertical asymptotes from denom roots
-        out.append("Vertical asymptotes: x = ")
-           .append(rf.denom.rootsWithMultiplicity()).append("\n");
+        // vertical asymptotes from denom roots, domain excludes them
+        String poles = RationalFunctionAnalysis.realRootsText(rf.denom);
+        
+        if (poles.equals("none")) {
+        	out.append("Vertical asymptotes: none\n");
+        	out.append("Domain: all real numbers\n");
+        }
+        else {
+        	out.append("Vertical asymptotes: x = ").append(poles).append("\n");
+        	out.append("Domain: all real numbers except x = ").append(poles).append("\n");
+        }
         
-        // domain excludes denom roots
-        out.append("Domain: all real numbers except x = ")
-           .append(rf.denom.rootsWithMultiplicity()).append("\n");
+        out.append("Horizontal asymptote: ")
+           .append(getHorizontalAsymptote(rf.numer,rf.denom))
+           .append("\n");
         
         // simple slant asymptote
         out.append("Oblique/slant asymptote: ")
            .append(getObliqueAsymptote(rf.numer,rf.denom))
            .append("\n");
         
+        out.append("End behavior: ").append(getEndBehavior(rf.numer,rf.denom)).append("\n");
+        
         return out.toString();
     }
     
     
+    public static String getHorizontalAsymptote
+    (Poly numer,Poly denom) {
+    	
+        // only when degN <= degD
+        if (numer.degree() < denom.degree()) return "y = 0";
+        if (numer.degree() > denom.degree()) return "None";
+        
+        return "y = " + (double) numer.leading / denom.leading;
+    }
+    
+    
+    public static String getEndBehavior
+    (Poly numer,Poly denom) {
+    	
+        int k = numer.degree() - denom.degree();
+        
+        if (k <= 0) {
+        	
+            String limit = k < 0 ? "0" : Double.toString((double) numer.leading / denom.leading);
+            return "f(x) -> " + limit + " as x -> -inf and as x -> inf";
+        }
+        
+        // sign of the leading ratio, flipped on the left for odd k
+        int right = Integer.signum(numer.leading) * Integer.signum(denom.leading);
+        int left = k % 2 == 0 ? right : -right;
+        
+        return "f(x) -> " + (left > 0 ? "inf" : "-inf") + " as x -> -inf, "
+             + "f(x) -> " + (right > 0 ? "inf" : "-inf") + " as x -> inf";
+    }
+    
+    
     public static String getObliqueAsymptote
     (Poly numer,Poly denom) {
     	
@@ -354,93 +371,27 @@ public class RationalFunctionEngine {
     // ====== internal utilities ======
     
     
-    private static int randInt
-    (Random rng,int lo,int hi) {
-    	
-        if (lo == hi) return lo;
-        return lo + rng.nextInt(hi - lo + 1);
-    }
-    
-    
-    private static int randomNonZeroDifferent
-    (int current,int abs,HashSet<Integer> forbidden,Random rng) {
+    private static ArrayList<Integer> divideByRoot
+    (ArrayList<Integer> coeffs,int r) {
     	
-        int v = current;
-        int guard = 0;
+        // synthetic division by (x - r), remainder assumed 0
+        int n = coeffs.size() - 1;
+        ArrayList<Integer> out = new ArrayList<>();
         
-        // keep picking until not same and not forbidden
-        while ((v == current || forbidden.contains(v)) && guard < 50) {
-        	
-            v = randInt(rng,-abs,abs);
-            if (v == 0) v = 1; // avoid 0
-            guard++;
+        for (int i = 0; i < n; i++) {
+        	out.add(0);
         }
         
-        return v;
-    }
-    
-    
-    private static ArrayList<Integer> randomRootsWithMultiplicity
-    (int degree,int abs,boolean allowMult,Random rng) {
-    	
-        ArrayList<Integer> roots = new ArrayList<>();
-        int remaining = degree;
+        int carry = 0;
         
-        // keep adding roots until degree reached
-        while (remaining > 0) {
-        	
-            int root = randInt(rng,-abs,abs);
-            if (root == 0) root = 1;
-            
-            int mult = 1;
-            
-            // sometimes make a double root
-            if (allowMult && remaining >= 2 && rng.nextDouble() < 0.25) {
-                mult = Math.min(2,remaining);
-            }
-            
-            for (int i = 0; i < mult; i++) {
-            	roots.add(root);
-            }
-            
-            remaining -= mult;
+        for (int i = n; i >= 1; i--) {
+            carry = coeffs.get(i) + carry * r;
+            out.set(i - 1,carry);
         }
         
-        // shuffle root order for variety
-        Collections.shuffle(roots,rng);
-        
-        return roots; // list of roots with repeats
+        return out;
     }
-
     
-    private static ArrayList<Integer> expandFromRoots
-    (ArrayList<Integer> roots,int leadingCoeff) {
-    	
-        ArrayList<Integer> poly = new ArrayList<>();
-        poly.add(leadingCoeff); // start with leading coeff
-        
-        // repeatedly multiply by (x - r)
-        for (int r : roots) {
-        	
-            ArrayList<Integer> next = new ArrayList<>();
-            
-            // new constant term
-            next.add(-r * poly.get(0));
-            
-            // middle terms
-            for (int j = 1; j < poly.size(); j++) {
-                next.add(poly.get(j - 1) - r * poly.get(j));
-            }
-            
-            // highest degree term
-            next.add(poly.get(poly.size() - 1));
-            
-            poly = next;
-        }
-        
-        return poly;
-    }
-
     
     private static ArrayList<Integer> trimZeros
     (ArrayList<Integer> coeffs) {
@@ -496,18 +447,4 @@ public class RationalFunctionEngine {
         
         return g;
     }
-    
-    
-    private static int pickNonUnitLeading
-    (Random rng) {
-    	
-    	// pick from {-3,-2,2,3}, avoid ±1 and 0
-    	int v = 0;
-    	
-    	while (v == 0 || Math.abs(v) == 1) {
-    		v = randInt(rng,-3,3);
-    	}
-    	
-    	return v;
-    }
 }
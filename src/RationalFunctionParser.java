@@ -0,0 +1,412 @@
+import java.util.ArrayList;
+
+public class RationalFunctionParser {
+
+    // ====== public api ======
+
+
+    // biggest exponent we accept, keeps coeffs inside int range
+    public static final int MAX_DEGREE = 12;
+
+
+    public static RationalFunctionEngine.RationalFunction parseRational
+    (String numerText,String denomText) {
+
+        RationalFunctionEngine.Poly n = parsePoly(numerText);
+        RationalFunctionEngine.Poly d = parsePoly(denomText);
+
+        if (n.coeffs.isEmpty()) {
+        	throw new IllegalArgumentException("N(x) cannot be 0");
+        }
+
+        if (d.coeffs.isEmpty()) {
+        	throw new IllegalArgumentException("D(x) cannot be 0");
+        }
+
+        // a constant D(x) is just a polynomial, nothing to ask about asymptotes
+        if (d.degree() < 1) {
+        	throw new IllegalArgumentException("D(x) must contain x");
+        }
+
+        // the answer key assumes no holes, so make them cancel first
+        ArrayList<Integer> common = RationalFunctionAnalysis.commonFactor(n.coeffs,d.coeffs);
+
+        if (common.size() > 1) {
+        	throw new IllegalArgumentException(
+        		"N(x) and D(x) share the factor ("
+        		+ new RationalFunctionEngine.Poly(common,new ArrayList<>()).toStandardString()
+        		+ "), cancel it first");
+        }
+
+        return new RationalFunctionEngine.RationalFunction(n,d);
+    }
+
+
+    public static RationalFunctionEngine.Poly parsePoly
+    (String text) {
+
+        if (text == null || text.trim().isEmpty()) {
+        	throw new IllegalArgumentException("empty polynomial");
+        }
+
+        Parser p = new Parser(text);
+        long[] c = p.parseExpr();
+        p.skipSpaces();
+
+        if (p.pos < p.src.length()) {
+        	throw p.error("unexpected '" + p.src.charAt(p.pos) + "'");
+        }
+
+        ArrayList<Integer> coeffs = new ArrayList<>();
+
+        for (long v : c) {
+        	coeffs.add(toInt(v));
+        }
+
+        return new RationalFunctionEngine.Poly(coeffs,integerRoots(c));
+    }
+
+
+    // ====== internal utilities ======
+
+
+    // recursive descent straight to coefficient arrays, no tree:
+    //   expr    := ['+'|'-'] term (('+'|'-') term)*
+    //   term    := power (['*'] power)*
+    //   power   := primary ['^' int]
+    //   primary := int | 'x' | '(' expr ')'
+    private static class Parser {
+
+        final String src;
+        int pos = 0;
+
+
+        Parser
+        (String src) {
+
+            this.src = src;
+        }
+
+
+        long[] parseExpr() {
+
+            skipSpaces();
+            boolean negate = false;
+
+            if (peek() == '+' || peek() == '-') {
+                negate = src.charAt(pos) == '-';
+                pos++;
+            }
+
+            long[] acc = parseTerm();
+            if (negate) acc = scale(acc,-1);
+
+            // keep adding / subtracting terms
+            while (true) {
+
+                skipSpaces();
+                char op = peek();
+                if (op != '+' && op != '-') break;
+                pos++;
+
+                long[] t = parseTerm();
+                acc = add(acc,op == '-' ? scale(t,-1) : t);
+            }
+
+            return acc;
+        }
+
+
+        long[] parseTerm() {
+
+            long[] acc = parsePower();
+
+            // implicit multiplication: 2x, 2(x-3), (x+1)(x-1), (x+1)2
+            while (true) {
+
+                skipSpaces();
+                char c = peek();
+
+                if (c == '*') {
+                    pos++;
+                }
+                else if (Character.isDigit(c)) {
+
+                    // "2 3" or "2x 3" is a typo, not 6 or 6x
+                    if (Character.isWhitespace(src.charAt(pos - 1))) {
+                    	throw error("missing operator before a number");
+                    }
+                }
+                else if (!(c == 'x' || c == 'X' || c == '(')) {
+                	break;
+                }
+
+                acc = multiply(acc,parsePower());
+            }
+
+            return acc;
+        }
+
+
+        long[] parsePower() {
+
+            long[] base = parsePrimary();
+            skipSpaces();
+
+            if (peek() != '^') return base;
+            pos++;
+            skipSpaces();
+
+            int start = pos;
+            long e = parseInt();
+
+            if (e > MAX_DEGREE) {
+            	pos = start;
+            	throw error("exponent above " + MAX_DEGREE);
+            }
+
+            long[] out = {1};
+            for (int i = 0; i < e; i++) {
+            	out = multiply(out,base);
+            }
+
+            return out;
+        }
+
+
+        long[] parsePrimary() {
+
+            skipSpaces();
+            char c = peek();
+
+            if (Character.isDigit(c)) {
+            	return new long[] {parseInt()};
+            }
+
+            if (c == 'x' || c == 'X') {
+                pos++;
+                return new long[] {0,1};
+            }
+
+            if (c == '(') {
+
+                pos++;
+                long[] inner = parseExpr();
+                skipSpaces();
+
+                if (peek() != ')') throw error("missing ')'");
+                pos++;
+
+                return inner;
+            }
+
+            if (pos >= src.length()) throw error("unexpected end of input");
+            throw error("unexpected '" + c + "'");
+        }
+
+
+        long parseInt() {
+
+            if (!Character.isDigit(peek())) throw error("expected a number");
+
+            long v = 0;
+
+            while (Character.isDigit(peek())) {
+
+                v = v * 10 + (src.charAt(pos) - '0');
+                if (v > Integer.MAX_VALUE) throw error("number too large");
+                pos++;
+            }
+
+            return v;
+        }
+
+
+        char peek() {
+
+            return pos < src.length() ? src.charAt(pos) : '\0';
+        }
+
+
+        void skipSpaces() {
+
+            while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) {
+            	pos++;
+            }
+        }
+
+
+        IllegalArgumentException error
+        (String msg) {
+
+            return new IllegalArgumentException(
+            	msg + " at position " + (pos + 1) + " in \"" + src + "\"");
+        }
+    }
+
+
+    private static long[] add
+    (long[] a,long[] b) {
+
+        long[] out = new long[Math.max(a.length,b.length)];
+
+        for (int i = 0; i < out.length; i++) {
+
+            long x = i < a.length ? a[i] : 0;
+            long y = i < b.length ? b[i] : 0;
+            out[i] = checked(x + y);
+        }
+
+        return out;
+    }
+
+
+    private static long[] scale
+    (long[] a,long k) {
+
+        long[] out = new long[a.length];
+
+        for (int i = 0; i < a.length; i++) {
+        	out[i] = checked(a[i] * k);
+        }
+
+        return out;
+    }
+
+
+    private static long[] multiply
+    (long[] a,long[] b) {
+
+        long[] out = new long[a.length + b.length - 1];
+
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < b.length; j++) {
+                out[i + j] = checked(out[i + j] + Math.multiplyExact(a[i],b[j]));
+            }
+        }
+
+        if (out.length - 1 > MAX_DEGREE && degreeOf(out) > MAX_DEGREE) {
+        	throw new IllegalArgumentException("degree above " + MAX_DEGREE);
+        }
+
+        return out;
+    }
+
+
+    private static int degreeOf
+    (long[] c) {
+
+        int d = c.length - 1;
+        while (d >= 0 && c[d] == 0) d--;
+        return d;
+    }
+
+
+    private static long checked
+    (long v) {
+
+        // intermediate values stay in long, final coeffs must fit an int
+        if (v > Integer.MAX_VALUE || v < Integer.MIN_VALUE) {
+        	throw new IllegalArgumentException("coefficient too large");
+        }
+
+        return v;
+    }
+
+
+    private static int toInt
+    (long v) {
+
+        return (int) checked(v);
+    }
+
+
+    private static ArrayList<Integer> integerRoots
+    (long[] coeffs) {
+
+        ArrayList<Integer> roots = new ArrayList<>();
+        long[] p = coeffs.clone();
+        int deg = degreeOf(p);
+
+        // zero polynomial has no meaningful roots
+        if (deg <= 0) return roots;
+
+        // factor out x first
+        while (deg > 0 && p[0] == 0) {
+
+            roots.add(0);
+            p = shiftDown(p);
+            deg--;
+        }
+
+        // integer roots divide the constant term (rational root test)
+        for (long cand : divisors(Math.abs(p[0]))) {
+
+            if (deg == 0) break;
+
+            for (long r : new long[] {cand,-cand}) {
+
+                // peel off every copy of this root
+                long[] q;
+                while (deg > 0 && (q = divideIfRoot(p,deg,r)) != null) {
+                    roots.add((int) r);
+                    p = q;
+                    deg--;
+                }
+            }
+        }
+
+        return roots;
+    }
+
+
+    private static ArrayList<Long> divisors
+    (long n) {
+
+        ArrayList<Long> small = new ArrayList<>();
+        ArrayList<Long> large = new ArrayList<>();
+
+        // pair each divisor below sqrt(n) with its cofactor
+        for (long d = 1; d * d <= n; d++) {
+
+            if (n % d != 0) continue;
+            small.add(d);
+            if (d != n / d) large.add(0,n / d);
+        }
+
+        small.addAll(large);
+        return small;
+    }
+
+
+    private static long[] shiftDown
+    (long[] p) {
+
+        long[] out = new long[p.length - 1];
+        System.arraycopy(p,1,out,0,out.length);
+        return out;
+    }
+
+
+    private static long[] divideIfRoot
+    (long[] p,int deg,long r) {
+
+        // synthetic division by (x - r), null when remainder is not 0
+        long[] q = new long[deg];
+        long carry = 0;
+
+        try {
+
+            for (int i = deg; i >= 1; i--) {
+                carry = Math.addExact(p[i],Math.multiplyExact(carry,r));
+                q[i - 1] = carry;
+            }
+
+            return Math.addExact(p[0],Math.multiplyExact(carry,r)) == 0 ? q : null;
+        }
+        catch (ArithmeticException ex) {
+        	// blew past long, cannot be a root of an int polynomial
+        	return null;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+public class SessionLog implements AutoCloseable {
+
+    // ====== public api ======
+
+
+    public static final byte GENERATE = 1;   // new problem on screen
+    public static final byte ANSWER = 2;     // answer key opened
+    public static final byte GRAPH = 3;      // graph opened
+    public static final byte ENTERED = 4;    // typed-in function, no seed
+    public static final byte PICKED = 5;     // chosen from the set browser
+    public static final byte DROPPED = 6;    // seed holds how many were lost
+
+    public static final String[] KIND_NAMES = {
+        "?","generate","answer","graph","entered","picked","dropped"};
+    public static final String[] LEVELS = {"EASY","MEDIUM","HARD"};
+
+    // file: MAGIC, start millis, then records of
+    //   int length | byte kind | long millis | int seed | byte degree | byte difficulty
+    public static final long MAGIC = 0x52464753455353L;   // "RFGSESS"
+    public static final int HEADER_BYTES = 16;
+    public static final int RECORD_BYTES = 15;
+
+
+    // default file: one per session under ~/.rfg-sessions, or -Drfg.sessionDir
+    public static SessionLog openDefault() throws IOException {
+
+        Path dir = Paths.get(System.getProperty("rfg.sessionDir",
+            System.getProperty("user.home") + "/.rfg-sessions"));
+        Files.createDirectories(dir);
+
+        long now = System.currentTimeMillis();
+        return new SessionLog(dir.resolve("session-" + now + ".rlog"),4096,1000);
+    }
+
+
+    public SessionLog
+    (Path file,int capacity,long forceMillis) throws IOException {
+
+        if (Integer.bitCount(capacity) != 1) {
+        	throw new IllegalArgumentException("capacity must be a power of two");
+        }
+
+        this.file = file;
+        this.mask = capacity - 1;
+        this.forceMillis = forceMillis;
+
+        sequence = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequence.set(i,i);
+
+        kinds = new byte[capacity];
+        times = new long[capacity];
+        seeds = new int[capacity];
+        degrees = new byte[capacity];
+        levels = new byte[capacity];
+
+        channel = FileChannel.open(file,StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,StandardOpenOption.APPEND);
+
+        if (channel.size() == 0) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putLong(MAGIC).putLong(System.currentTimeMillis()).flip();
+            while (header.hasRemaining()) channel.write(header);
+        }
+
+        writer = new Thread(this::writeLoop,"session-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+
+    // never blocks: a full buffer yields to the writer once, then drops the event and counts it
+    public boolean log
+    (byte kind,int seed,int degree,String difficulty) {
+
+        long pos = tail.get();
+        boolean yielded = false;
+
+        while (true) {
+
+            int slot = (int) (pos & mask);
+            long seq = sequence.get(slot);
+
+            if (seq == pos) {
+
+                if (tail.compareAndSet(pos,pos + 1)) {
+
+                    kinds[slot] = kind;
+                    times[slot] = System.currentTimeMillis();
+                    seeds[slot] = seed;
+                    degrees[slot] = (byte) degree;
+                    levels[slot] = levelCode(difficulty);
+                    sequence.set(slot,pos + 1);   // publish to the writer
+                    LockSupport.unpark(writer);
+                    return true;
+                }
+
+                pos = tail.get();
+            }
+            else if (seq < pos) {
+
+                // full: give the writer one chance to drain before dropping
+                if (!yielded) {
+                	yielded = true;
+                	LockSupport.unpark(writer);
+                	Thread.yield();
+                	pos = tail.get();
+                	continue;
+                }
+
+                dropped.incrementAndGet();
+                return false;
+            }
+            else {
+            	pos = tail.get();
+            }
+        }
+    }
+
+
+    public long droppedCount() {
+
+        return dropped.get();
+    }
+
+
+    public Path file() {
+
+        return file;
+    }
+
+
+    // drains what is queued, forces it to disk and stops the writer
+    @Override
+    public void close() {
+
+        if (closed) return;
+        closed = true;
+
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join();
+        }
+        catch (InterruptedException ex) {
+        	Thread.currentThread().interrupt();
+        }
+    }
+
+
+    public static byte levelCode
+    (String difficulty) {
+
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(difficulty)) return (byte) i;
+        }
+
+        return -1;
+    }
+
+
+    // ====== internal utilities ======
+
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Thread writer;
+    private final long forceMillis;
+    private volatile boolean closed = false;
+
+    // bounded multi-producer ring (Vyukov): a slot is free for position p
+    // when its sequence is p, and holds an event once it reads p + 1
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0;   // writer thread only
+    private final AtomicLong dropped = new AtomicLong();
+
+    // slot payloads, written before the sequence store that publishes them
+    private final byte[] kinds;
+    private final long[] times;
+    private final int[] seeds;
+    private final byte[] degrees;
+    private final byte[] levels;
+
+
+    private void writeLoop() {
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(256 * (4 + RECORD_BYTES));
+        long reportedDrops = 0;
+        long lastForce = System.currentTimeMillis();
+        boolean dirty = false;
+
+        try {
+
+            while (true) {
+
+                boolean stopping = closed;
+                int n = 0;
+
+                // one batch: whatever is published, up to the buffer size
+                while (buf.remaining() >= 2 * (4 + RECORD_BYTES)) {
+
+                    int slot = (int) (head & mask);
+                    if (sequence.get(slot) != head + 1) break;
+
+                    putRecord(buf,kinds[slot],times[slot],seeds[slot],degrees[slot],levels[slot]);
+                    sequence.set(slot,head + mask + 1);   // free for the next lap
+                    head++;
+                    n++;
+                }
+
+                long drops = dropped.get();
+
+                if (drops != reportedDrops) {
+
+                    putRecord(buf,DROPPED,System.currentTimeMillis(),
+                        (int) Math.min(Integer.MAX_VALUE,drops - reportedDrops),0,(byte) -1);
+                    reportedDrops = drops;
+                    n++;
+                }
+
+                if (n > 0) {
+
+                    buf.flip();
+                    while (buf.hasRemaining()) channel.write(buf);
+                    buf.clear();
+                    dirty = true;
+                }
+
+                long now = System.currentTimeMillis();
+
+                if (dirty && (stopping || now - lastForce >= forceMillis)) {
+
+                    channel.force(false);
+                    lastForce = now;
+                    dirty = false;
+                }
+
+                // on close, keep going until a round finds nothing
+                if (stopping && n == 0) break;
+                if (n > 0) continue;
+
+                // idle: sleep until log() or close() wakes us, or the fsync is due
+                if (dirty) LockSupport.parkNanos((lastForce + forceMillis - now) * 1_000_000L);
+                else LockSupport.park(this);
+            }
+        }
+        catch (IOException ex) {
+        	System.err.println("session log " + file + ": " + ex.getMessage());
+        }
+        finally {
+
+            try {
+                channel.close();
+            }
+            catch (IOException ignored) {
+            }
+        }
+    }
+
+
+    private static void putRecord
+    (ByteBuffer buf,byte kind,long millis,int seed,int degree,byte level) {
+
+        buf.putInt(RECORD_BYTES)
+           .put(kind)
+           .putLong(millis)
+           .putInt(seed)
+           .put((byte) degree)
+           .put(level);
+    }
+}
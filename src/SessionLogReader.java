@@ -0,0 +1,225 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+public class SessionLogReader {
+
+    // summarizes (or with --replay, prints) session logs written by SessionLog:
+    //   java SessionLogReader [--replay] <file or directory>...
+    public static void main(String[] args) throws IOException {
+
+        boolean replay = false;
+        ArrayList<Path> files = new ArrayList<>();
+
+        for (String a : args) {
+
+            if (a.equals("--replay")) {
+            	replay = true;
+            	continue;
+            }
+
+            Path p = Paths.get(a);
+
+            if (Files.isDirectory(p)) {
+
+                try (Stream<Path> s = Files.list(p)) {
+                    s.filter(f -> f.toString().endsWith(".rlog")).sorted().forEach(files::add);
+                }
+            }
+            else files.add(p);
+        }
+
+        if (files.isEmpty()) {
+            System.err.println("usage: SessionLogReader [--replay] <file or directory>...");
+            System.exit(2);
+        }
+
+        Summary total = new Summary();
+
+        for (Path f : files) {
+
+            Summary s = read(f,replay);
+            System.out.println(f.getFileName() + ": " + s);
+            total.add(s);
+        }
+
+        if (files.size() > 1) System.out.println("total: " + total);
+        if (!replay) System.out.print(total.breakdown());
+    }
+
+
+    // per-kind counts, plus generated problems by degree and difficulty
+    public static class Summary {
+
+        public final long[] kinds = new long[SessionLog.KIND_NAMES.length];
+        public final long[][] generated = new long[16][SessionLog.LEVELS.length];
+        public long lost = 0;        // from DROPPED records
+        public long firstMillis = Long.MAX_VALUE;
+        public long lastMillis = Long.MIN_VALUE;
+        public boolean truncated = false;
+
+
+        public long events() {
+
+            long n = 0;
+            for (int k = 1; k < kinds.length; k++) {
+                if (k != SessionLog.DROPPED) n += kinds[k];
+            }
+
+            return n;
+        }
+
+
+        void add
+        (Summary o) {
+
+            for (int k = 0; k < kinds.length; k++) kinds[k] += o.kinds[k];
+
+            for (int d = 0; d < generated.length; d++) {
+                for (int l = 0; l < generated[d].length; l++) generated[d][l] += o.generated[d][l];
+            }
+
+            lost += o.lost;
+            firstMillis = Math.min(firstMillis,o.firstMillis);
+            lastMillis = Math.max(lastMillis,o.lastMillis);
+            truncated |= o.truncated;
+        }
+
+
+        @Override
+        public String toString() {
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(events()).append(" events");
+
+            for (int k = 1; k < kinds.length; k++) {
+                if (k != SessionLog.DROPPED && kinds[k] > 0) {
+                	sb.append(", ").append(kinds[k]).append(' ').append(SessionLog.KIND_NAMES[k]);
+                }
+            }
+
+            if (lost > 0) sb.append(", ").append(lost).append(" lost");
+            if (truncated) sb.append(", truncated tail");
+
+            if (firstMillis <= lastMillis) {
+            	sb.append(", ").append(Instant.ofEpochMilli(firstMillis))
+            	  .append(" .. ").append(Instant.ofEpochMilli(lastMillis));
+            }
+
+            return sb.toString();
+        }
+
+
+        String breakdown() {
+
+            StringBuilder sb = new StringBuilder();
+            long problems = kinds[SessionLog.GENERATE] + kinds[SessionLog.PICKED];
+
+            if (problems > 0) {
+
+                sb.append(String.format("answer key opened per problem: %.2f%n",
+                    (double) kinds[SessionLog.ANSWER] / problems));
+                sb.append(String.format("graph opened per problem: %.2f%n",
+                    (double) kinds[SessionLog.GRAPH] / problems));
+            }
+
+            for (int d = 0; d < generated.length; d++) {
+                for (int l = 0; l < generated[d].length; l++) {
+                    if (generated[d][l] > 0) {
+                    	sb.append("degree ").append(d).append(' ').append(SessionLog.LEVELS[l])
+                    	  .append(": ").append(generated[d][l]).append('\n');
+                    }
+                }
+            }
+
+            return sb.toString();
+        }
+    }
+
+
+    // one pass over the mapped file; a half-written last record is reported, not fatal
+    public static Summary read
+    (Path file,boolean replay) throws IOException {
+
+        Summary s = new Summary();
+
+        try (FileChannel ch = FileChannel.open(file,StandardOpenOption.READ)) {
+
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY,0,ch.size());
+
+            if (buf.remaining() < SessionLog.HEADER_BYTES || buf.getLong() != SessionLog.MAGIC) {
+            	throw new IOException(file + ": not a session log");
+            }
+
+            buf.getLong();   // session start
+
+            while (buf.hasRemaining()) {
+
+                if (buf.remaining() < 4) {
+                	s.truncated = true;
+                	break;
+                }
+
+                int len = buf.getInt();
+
+                if (len < SessionLog.RECORD_BYTES) {
+                	throw new IOException(file + ": bad record length " + len);
+                }
+
+                if (len > buf.remaining()) {
+                	s.truncated = true;
+                	break;
+                }
+
+                int start = buf.position();
+                byte kind = buf.get();
+                long millis = buf.getLong();
+                int seed = buf.getInt();
+                int degree = buf.get();
+                int level = buf.get();
+                buf.position(start + len);   // longer records from newer writers
+
+                if (kind <= 0 || kind >= SessionLog.KIND_NAMES.length) kind = 0;
+                s.kinds[kind]++;
+                s.firstMillis = Math.min(s.firstMillis,millis);
+                s.lastMillis = Math.max(s.lastMillis,millis);
+
+                if (kind == SessionLog.DROPPED) s.lost += seed;
+
+                if ((kind == SessionLog.GENERATE || kind == SessionLog.PICKED)
+                    && degree >= 0 && degree < s.generated.length
+                    && level >= 0 && level < SessionLog.LEVELS.length) {
+                	s.generated[degree][level]++;
+                }
+
+                if (replay) System.out.println(describe(kind,millis,seed,degree,level));
+            }
+        }
+
+        return s;
+    }
+
+
+    // ====== internal utilities ======
+
+
+    private static String describe
+    (byte kind,long millis,int seed,int degree,int level) {
+
+        String when = Instant.ofEpochMilli(millis).toString();
+        String what = SessionLog.KIND_NAMES[kind];
+
+        if (kind == SessionLog.DROPPED) return when + " " + what + " " + seed;
+        if (degree < 0) return when + " " + what + " (entered function)";
+
+        return when + " " + what + " seed " + seed + " degree " + degree + " "
+             + (level >= 0 && level < SessionLog.LEVELS.length ? SessionLog.LEVELS[level] : "?");
+    }
+}
@@ -0,0 +1,560 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class ShardCoordinator {
+
+    // ====== public api ======
+
+
+    public static class Shard {
+
+        public final int id;
+        public final long start;     // first index, inclusive
+        public final long end;       // last index, exclusive
+
+        // written by whichever worker thread holds the shard
+        volatile int attempts = 0;
+        volatile long nanos = 0;     // time of the successful attempt
+        volatile String worker = "";
+
+
+        Shard
+        (int id,long start,long end) {
+
+            this.id = id;
+            this.start = start;
+            this.end = end;
+        }
+
+
+        public double problemsPerSecond() {
+
+            return nanos == 0 ? 0 : (end - start) * 1e9 / nanos;
+        }
+    }
+
+
+    public ShardCoordinator
+    (long seed,long count,int maxDegree,String difficulty,int shards,Path workDir,int maxRetries) {
+
+        if (shards < 1) throw new IllegalArgumentException("need at least one shard");
+
+        this.seed = seed;
+        this.maxDegree = maxDegree;
+        this.difficulty = difficulty;
+        this.workDir = workDir;
+        this.maxRetries = maxRetries;
+
+        // contiguous index ranges, sizes differ by at most one
+        for (int i = 0; i < shards; i++) {
+        	this.shards.add(new Shard(i,count * i / shards,count * (i + 1) / shards));
+        }
+
+        pending.addAll(this.shards);
+        finished = new CountDownLatch(shards);
+    }
+
+
+    // first attempt of every odd shard crashes halfway, to test retries
+    public void setChaos
+    (boolean chaos) {
+
+        this.chaos = chaos;
+    }
+
+
+    // a worker silent this long loses its shard to a retry: a local one
+    // whose shard file stops growing, or a socket with nothing to read
+    public void setWorkerTimeout
+    (int millis) {
+
+        this.workerTimeoutMillis = millis;
+    }
+
+
+    // runs every shard on local processes and / or socket workers, then
+    // merges the shard files into 'out'; listenPort < 0 means no socket
+    public List<Shard> run
+    (int localWorkers,int listenPort,Path out) throws IOException, InterruptedException {
+
+        Files.createDirectories(workDir);
+        ArrayList<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < localWorkers; i++) {
+        	threads.add(start("local-" + i,this::localLoop));
+        }
+
+        ServerSocket server = null;
+
+        if (listenPort >= 0) {
+
+            server = new ServerSocket(listenPort);
+            server.setSoTimeout(200);
+            System.err.println("listening for workers on port " + server.getLocalPort());
+
+            ServerSocket s = server;
+            threads.add(start("accept",() -> acceptLoop(s)));
+        }
+
+        if (localWorkers <= 0 && server == null) {
+        	throw new IllegalArgumentException("no local workers and no listen port");
+        }
+
+        // wait for every shard, or the first one that ran out of retries
+        while (failure == null && !finished.await(100,TimeUnit.MILLISECONDS)) {
+        	// poll
+        }
+
+        for (Thread t : threads) t.join();
+        if (server != null) server.close();
+
+        if (failure != null) throw new IOException(failure);
+
+        merge(out);
+        deleteWorkDir();
+        return shards;
+    }
+
+
+    // java ShardCoordinator <seed> <count> <maxDegree> <difficulty> <shards> <out>
+    //                       [--local n] [--listen port] [--retries n] [--timeout s] [--chaos]
+    public static void main(String[] args) throws Exception {
+
+        if (args.length < 6) {
+            System.err.println("usage: ShardCoordinator <seed> <count> <maxDegree> <difficulty> "
+                + "<shards> <out> [--local n] [--listen port] [--retries n] [--timeout s] [--chaos]");
+            System.exit(2);
+        }
+
+        int local = Runtime.getRuntime().availableProcessors();
+        int listen = -1;
+        int retries = 2;
+        int timeout = 30;
+        boolean chaos = false;
+
+        for (int i = 6; i < args.length; i++) {
+
+            switch (args[i]) {
+                case "--local": local = Integer.parseInt(args[++i]); break;
+                case "--listen": listen = Integer.parseInt(args[++i]); break;
+                case "--retries": retries = Integer.parseInt(args[++i]); break;
+                case "--timeout": timeout = Integer.parseInt(args[++i]); break;
+                case "--chaos": chaos = true; break;
+                default:
+                    System.err.println("unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        Path out = Paths.get(args[5]);
+        ShardCoordinator c = new ShardCoordinator(Long.parseLong(args[0]),Long.parseLong(args[1]),
+            Integer.parseInt(args[2]),args[3].toUpperCase(),Integer.parseInt(args[4]),
+            Paths.get(args[5] + ".shards"),retries);
+        c.setChaos(chaos);
+        c.setWorkerTimeout(timeout * 1000);
+
+        long t0 = System.nanoTime();
+        List<Shard> done = c.run(local,listen,out);
+        long total = System.nanoTime() - t0;
+
+        long problems = 0;
+
+        for (Shard s : done) {
+
+            problems += s.end - s.start;
+            System.err.printf("shard %3d [%d, %d) attempts %d on %-16s %8.1f ms %10.0f problems/s%n",
+                s.id,s.start,s.end,s.attempts,s.worker,s.nanos / 1e6,s.problemsPerSecond());
+        }
+
+        System.err.printf("merged %d problems into %s in %.1f ms (%.0f problems/s overall)%n",
+            problems,out,total / 1e6,problems * 1e9 / total);
+    }
+
+
+    // ====== internal utilities ======
+
+
+    private final long seed;
+    private final int maxDegree;
+    private final String difficulty;
+    private final Path workDir;
+    private final int maxRetries;
+    private volatile boolean chaos = false;
+    private volatile int workerTimeoutMillis = 30_000;
+
+    private final ArrayList<Shard> shards = new ArrayList<>();
+    private final LinkedBlockingQueue<Shard> pending = new LinkedBlockingQueue<>();
+    private final CountDownLatch finished;
+    private volatile String failure = null;
+
+
+    private static Thread start
+    (String name,Runnable body) {
+
+        Thread t = new Thread(body,"shard-" + name);
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+
+    // next shard to run, null once everything is done or failed
+    private Shard nextShard() {
+
+        try {
+
+            while (failure == null && finished.getCount() > 0) {
+
+                Shard s = pending.poll(100,TimeUnit.MILLISECONDS);
+                if (s != null) return s;
+            }
+        }
+        catch (InterruptedException ex) {
+        	Thread.currentThread().interrupt();
+        }
+
+        return null;
+    }
+
+
+    private Path shardFile
+    (Shard s) {
+
+        return workDir.resolve("shard-" + s.id + ".tsv");
+    }
+
+
+    // the temp file only becomes the shard file once it is complete
+    private void complete
+    (Shard s,Path tmp,long nanos,String worker) throws IOException {
+
+        Files.move(tmp,shardFile(s),StandardCopyOption.REPLACE_EXISTING);
+        s.nanos = nanos;
+        s.worker = worker;
+        finished.countDown();
+    }
+
+
+    private void retry
+    (Shard s,String why) {
+
+        System.err.println("shard " + s.id + " attempt " + s.attempts + " failed: " + why);
+
+        if (s.attempts > maxRetries) {
+        	failure = "shard " + s.id + " failed " + s.attempts + " times, last: " + why;
+        }
+        else {
+        	pending.add(s);
+        }
+    }
+
+
+    private void localLoop() {
+
+        Shard s;
+
+        while ((s = nextShard()) != null) {
+
+            s.attempts++;
+            Path tmp = workDir.resolve("shard-" + s.id + ".attempt-" + s.attempts);
+
+            ArrayList<String> cmd = new ArrayList<>();
+            cmd.add(Paths.get(System.getProperty("java.home"),"bin","java").toString());
+            cmd.add("-cp");
+            cmd.add(System.getProperty("java.class.path"));
+            cmd.add("ShardWorker");
+            cmd.add("file");
+            cmd.add(Long.toString(seed));
+            cmd.add(Integer.toString(maxDegree));
+            cmd.add(difficulty);
+            cmd.add(Long.toString(s.start));
+            cmd.add(Long.toString(s.end));
+            cmd.add(tmp.toString());
+
+            if (chaos && s.id % 2 == 1 && s.attempts == 1) {
+            	cmd.add("--crash-after");
+            	cmd.add(Long.toString((s.end - s.start) / 2));
+            }
+
+            long t0 = System.nanoTime();
+
+            try {
+
+                Process p = new ProcessBuilder(cmd)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+
+                // a hung worker stops growing its shard file; kill it then
+                if (!awaitWorker(p,tmp)) {
+
+                    p.destroyForcibly().waitFor();
+                    Files.deleteIfExists(tmp);
+                    retry(s,"pid " + p.pid() + " silent for " + workerTimeoutMillis + " ms, killed");
+                    continue;
+                }
+
+                // it has exited, so its one-line report is all there is to read
+                String report;
+                try (BufferedReader r = new BufferedReader(new InputStreamReader(
+                         p.getInputStream(),StandardCharsets.UTF_8))) {
+                    report = r.readLine();
+                }
+
+                int exit = p.exitValue();
+                String expect = "wrote " + (s.end - s.start);
+
+                if (exit == 0 && expect.equals(report)) {
+                	complete(s,tmp,System.nanoTime() - t0,"pid " + p.pid());
+                }
+                else {
+                	Files.deleteIfExists(tmp);
+                	retry(s,"worker exit " + exit + ", reported " + report);
+                }
+            }
+            catch (IOException ex) {
+            	retry(s,ex.toString());
+            }
+            catch (InterruptedException ex) {
+            	Thread.currentThread().interrupt();
+            	retry(s,"interrupted");
+            	return;
+            }
+        }
+    }
+
+
+    // true once p exits, false if its output file stops growing for a timeout
+    private boolean awaitWorker
+    (Process p,Path file) throws IOException, InterruptedException {
+
+        long lastSize = -1;
+
+        while (!p.waitFor(workerTimeoutMillis,TimeUnit.MILLISECONDS)) {
+
+            long size = Files.exists(file) ? Files.size(file) : 0;
+            if (size == lastSize) return false;
+            lastSize = size;
+        }
+
+        return true;
+    }
+
+
+    private void acceptLoop
+    (ServerSocket server) {
+
+        while (failure == null && finished.getCount() > 0) {
+
+            try {
+
+                Socket socket = server.accept();
+                start("remote-" + socket.getRemoteSocketAddress(),() -> remoteLoop(socket));
+            }
+            catch (SocketTimeoutException ex) {
+            	// check whether we are done
+            }
+            catch (IOException ex) {
+            	if (!server.isClosed()) System.err.println("accept failed: " + ex);
+            	return;
+            }
+        }
+    }
+
+
+    private void remoteLoop
+    (Socket socket) {
+
+        String who = socket.getRemoteSocketAddress().toString();
+        Shard s = null;
+        Path tmp = null;
+
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                 socket.getInputStream(),StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                 socket.getOutputStream(),StandardCharsets.UTF_8))) {
+
+            // a stalled worker shows up as a read timeout, not a hang
+            socket.setSoTimeout(workerTimeoutMillis);
+
+            while ((s = nextShard()) != null) {
+
+                s.attempts++;
+                tmp = workDir.resolve("shard-" + s.id + ".attempt-" + s.attempts);
+                long t0 = System.nanoTime();
+
+                out.write("SHARD " + s.id + " " + seed + " " + maxDegree + " " + difficulty
+                    + " " + s.start + " " + s.end + "\n");
+                out.flush();
+
+                long lines = 0;
+                String end = null;
+
+                try (Writer file = Files.newBufferedWriter(tmp,StandardCharsets.UTF_8)) {
+
+                    String line;
+
+                    while ((line = in.readLine()) != null) {
+
+                        if (line.startsWith("END ")) {
+                        	end = line;
+                        	break;
+                        }
+
+                        // the merge trusts shard files, so check each record on the way in
+                        checkRecord(line,s.start + lines,s.end);
+
+                        file.write(line);
+                        file.write('\n');
+                        lines++;
+                    }
+                }
+
+                if (end == null) throw new IOException("worker hung up mid-shard");
+
+                if (!end.equals("END " + s.id + " " + lines) || lines != s.end - s.start) {
+
+                    Files.deleteIfExists(tmp);
+                    Shard bad = s;
+                    s = null;
+                    retry(bad,"remote " + who + " sent " + lines + " lines, " + end);
+                    continue;
+                }
+
+                complete(s,tmp,System.nanoTime() - t0,who);
+                s = null;
+            }
+
+            out.write("DONE\n");
+            out.flush();
+        }
+        catch (IOException ex) {
+
+            // the shard this worker held goes back in the queue, minus its partial file
+            if (s != null) {
+
+                try {
+                    Files.deleteIfExists(tmp);
+                }
+                catch (IOException ignored) {
+                }
+
+                retry(s,ex instanceof SocketTimeoutException
+                    ? "remote " + who + " silent for " + workerTimeoutMillis + " ms"
+                    : "remote " + who + ": " + ex);
+            }
+        }
+    }
+
+
+    // a well-formed record for index 'want', inside a shard ending before 'end'
+    private static void checkRecord
+    (String line,long want,long end) throws IOException {
+
+        GeneratedProblem p;
+
+        try {
+            p = GeneratedProblem.fromRecord(line);
+        }
+        catch (RuntimeException ex) {
+        	throw new IOException("bad record: " + ex.getMessage());
+        }
+
+        if (p.index != want || want >= end) {
+        	throw new IOException("record " + p.index + " where " + want + " belongs"
+        	                      + (want >= end ? ", past the end of the shard" : ""));
+        }
+    }
+
+
+    // k-way merge on index, so the result never depends on the shard layout
+    private void merge
+    (Path out) throws IOException {
+
+        ArrayList<BufferedReader> readers = new ArrayList<>();
+        PriorityQueue<Head> heads = new PriorityQueue<>((a,b) -> Long.compare(a.index,b.index));
+
+        try (Writer w = Files.newBufferedWriter(out,StandardCharsets.UTF_8)) {
+
+            for (Shard s : shards) {
+
+                BufferedReader r = Files.newBufferedReader(shardFile(s),StandardCharsets.UTF_8);
+                readers.add(r);
+                push(heads,r);
+            }
+
+            while (!heads.isEmpty()) {
+
+                Head head = heads.poll();
+                w.write(head.line);
+                w.write('\n');
+                push(heads,head.reader);
+            }
+        }
+        finally {
+        	for (BufferedReader r : readers) r.close();
+        }
+    }
+
+
+    // shard files are only scratch once merged
+    private void deleteWorkDir() throws IOException {
+
+        try (Stream<Path> files = Files.list(workDir)) {
+
+            for (Path f : (Iterable<Path>) files::iterator) {
+            	Files.delete(f);
+            }
+        }
+
+        Files.delete(workDir);
+    }
+
+
+    // current line of one shard file during the merge
+    private static class Head {
+
+        final long index;
+        final String line;
+        final BufferedReader reader;
+
+
+        Head
+        (long index,String line,BufferedReader reader) {
+
+            this.index = index;
+            this.line = line;
+            this.reader = reader;
+        }
+    }
+
+
+    private static void push
+    (PriorityQueue<Head> heads,BufferedReader r) throws IOException {
+
+        String line = r.readLine();
+        if (line == null) return;
+
+        long index = Long.parseLong(line.substring(0,line.indexOf('\t')));
+        heads.add(new Head(index,line,r));
+    }
+}
@@ -0,0 +1,101 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class ShardWorker {
+
+    // one index range of a seeded job, in one of two modes:
+    //   java ShardWorker file <seed> <maxDegree> <difficulty> <start> <end> <outFile> [--crash-after n]
+    //   java ShardWorker connect <host> <port>
+    public static void main(String[] args) throws IOException {
+
+        if (args.length >= 7 && args[0].equals("file")) {
+
+            long crashAfter = args.length >= 9 && args[7].equals("--crash-after")
+                ? Long.parseLong(args[8]) : -1;
+
+            try (Writer out = Files.newBufferedWriter(Paths.get(args[6]),StandardCharsets.UTF_8)) {
+
+                long n = writeRange(out,Long.parseLong(args[1]),Integer.parseInt(args[2]),
+                    args[3],Long.parseLong(args[4]),Long.parseLong(args[5]),crashAfter);
+                System.out.println("wrote " + n);
+            }
+            return;
+        }
+
+        if (args.length >= 3 && args[0].equals("connect")) {
+
+            serve(args[1],Integer.parseInt(args[2]));
+            return;
+        }
+
+        System.err.println("usage: ShardWorker file <seed> <maxDegree> <difficulty> <start> <end> <outFile>");
+        System.err.println("       ShardWorker connect <host> <port>");
+        System.exit(2);
+    }
+
+
+    // problems [start, end) as records, in index order; crashAfter < 0 never crashes
+    static long writeRange
+    (Writer out,long seed,int maxDegree,String difficulty,long start,long end,long crashAfter)
+    throws IOException {
+
+        long n = 0;
+
+        for (long i = start; i < end; i++) {
+
+            if (n == crashAfter) {
+            	// fault injection for exercising coordinator retries
+            	out.flush();
+            	Runtime.getRuntime().halt(3);
+            }
+
+            out.write(GeneratedProblem.generate(seed,i,maxDegree,difficulty,false).toRecord());
+            out.write('\n');
+            n++;
+        }
+
+        return n;
+    }
+
+
+    // take shards from a coordinator until it says DONE:
+    //   <- SHARD <id> <seed> <maxDegree> <difficulty> <start> <end>
+    //   -> records..., then END <id> <count>
+    private static void serve
+    (String host,int port) throws IOException {
+
+        try (Socket socket = new Socket(host,port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                 socket.getInputStream(),StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                 socket.getOutputStream(),StandardCharsets.UTF_8),1 << 16)) {
+
+            String line;
+
+            while ((line = in.readLine()) != null) {
+
+                String[] cmd = line.split(" ");
+
+                if (cmd[0].equals("DONE")) break;
+
+                if (!cmd[0].equals("SHARD") || cmd.length != 7) {
+                	throw new IOException("unexpected command: " + line);
+                }
+
+                long n = writeRange(out,Long.parseLong(cmd[2]),Integer.parseInt(cmd[3]),
+                    cmd[4],Long.parseLong(cmd[5]),Long.parseLong(cmd[6]),-1);
+
+                out.write("END " + cmd[1] + " " + n + "\n");
+                out.flush();
+            }
+        }
+    }
+}